@@ -1,6 +1,7 @@
 package com.mraof.minestuck;
 
 import com.mraof.minestuck.computer.editmode.DeployList;
+import com.mraof.minestuck.skaianet.UnderlingController;
 import net.minecraft.server.MinecraftServer;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.common.ForgeConfigSpec.*;
@@ -102,6 +103,8 @@ public class MinestuckConfig
 		public final BooleanValue stopSecondEntry;
 		public final BooleanValue needComputer;
 		public final IntValue artifactRange;
+		public final IntValue entryTickBudget;
+		public final IntValue postEntryTickBudget;
 		
 		//Computer
 		public final BooleanValue privateComputers;
@@ -216,6 +219,10 @@ public class MinestuckConfig
 					.define("needComputer", false);
 			artifactRange = builder.comment("Radius of the land brought into the medium.")
 					.defineInRange("artifactRange",30,0,Integer.MAX_VALUE);
+			entryTickBudget = builder.comment("The maximum amount of time in milliseconds to spend each tick on moving the blocks brought along by entry. The player is held in place until the blocks have been moved.")
+					.defineInRange("entryTickBudget",20,1,1000);
+			postEntryTickBudget = builder.comment("The maximum amount of time in milliseconds to spend each tick on updating the blocks brought along by entry.")
+					.defineInRange("postEntryTickBudget",20,1,1000);
 			builder.pop();
 			
 			builder.push("medium");
@@ -268,6 +275,7 @@ public class MinestuckConfig
 	@SubscribeEvent
 	public static void onReload(final ModConfig.Reloading event)
 	{
+		UnderlingController.invalidateSpawnTables();
 		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
 		if(server != null && server.isSameThread())	//TODO Check if this will be true after server start. If not, use a static boolean together with a tick event instead
 			DeployList.onConditionsUpdated(server);
@@ -0,0 +1,26 @@
+package com.mraof.minestuck.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mraof.minestuck.util.BoondollarPriceManager;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.TranslationTextComponent;
+
+public class BoondollarPricesCommand
+{
+	public static final String STATISTICS = "commands.minestuck.boondollar_prices";
+	
+	public static void register(CommandDispatcher<CommandSource> dispatcher)
+	{
+		dispatcher.register(Commands.literal("boondollarprices").requires(source -> source.hasPermission(2)).executes(context -> execute(context.getSource())));
+	}
+	
+	private static int execute(CommandSource source)
+	{
+		long[] statistics = BoondollarPriceManager.getInstance().getIndexStatistics();
+		long lookups = statistics[2] + statistics[3];
+		long hitPercentage = lookups > 0 ? statistics[2] * 100 / lookups : 0;
+		source.sendSuccess(new TranslationTextComponent(STATISTICS, statistics[0], statistics[1], lookups, hitPercentage), false);
+		return 1;
+	}
+}
\ No newline at end of file
@@ -26,5 +26,6 @@ public class MSCommands
 		ConsortReplyCommand.register(dispatcher);
 		PorkhollowCommand.register(dispatcher);
 		DebugLandsCommand.register(dispatcher);
+		BoondollarPricesCommand.register(dispatcher);
 	}
 }
\ No newline at end of file
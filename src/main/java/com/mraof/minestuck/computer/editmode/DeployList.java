@@ -107,7 +107,11 @@ public final class DeployList
 	
 	public static List<DeployEntry> getItemList(MinecraftServer server, SburbConnection c)
 	{
-		int tier = SburbHandler.availableTier(server, c.getClientIdentifier());
+		return getItemList(c, SburbHandler.availableTier(server, c.getClientIdentifier()));
+	}
+	
+	public static List<DeployEntry> getItemList(SburbConnection c, int tier)
+	{
 		ArrayList<DeployEntry> itemList = new ArrayList<>();
 		for(DeployEntry entry : list)
 			if(entry.isAvailable(c, tier))
@@ -173,11 +177,15 @@ public final class DeployList
 	
 	
 	static CompoundNBT getDeployListTag(MinecraftServer server, SburbConnection c)
+	{
+		return getDeployListTag(server, c, SburbHandler.availableTier(server, c.getClientIdentifier()));
+	}
+	
+	static CompoundNBT getDeployListTag(MinecraftServer server, SburbConnection c, int tier)
 	{
 		CompoundNBT nbt = new CompoundNBT();
 		ListNBT tagList = new ListNBT();
 		nbt.put("l", tagList);
-		int tier = SburbHandler.availableTier(server, c.getClientIdentifier());
 		for(int i = 0; i < list.size(); i++)
 		{
 			DeployEntry entry = list.get(i);
@@ -188,6 +196,7 @@ public final class DeployList
 	
 	/**
 	 * Should be called any time that the conditions of deploy list entries might have changed for players.
+	 * This includes changes to the tier available to players, and also clears the deploy entries cached by each {@link EditData}.
 	 */
 	public static void onConditionsUpdated(MinecraftServer server)
 	{
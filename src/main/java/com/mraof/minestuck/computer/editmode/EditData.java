@@ -8,9 +8,12 @@ import com.mraof.minestuck.network.data.GristCachePacket;
 import com.mraof.minestuck.player.IdentifierHandler;
 import com.mraof.minestuck.player.PlayerIdentifier;
 import com.mraof.minestuck.skaianet.SburbConnection;
+import com.mraof.minestuck.skaianet.SburbHandler;
 import com.mraof.minestuck.util.Teleport;
 import com.mraof.minestuck.world.storage.PlayerSavedData;
+import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.nbt.NBTDynamicOps;
@@ -24,6 +27,11 @@ import net.minecraftforge.common.util.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Data structure used by the server sided EditHandler
  * Contains the player, player decoy, and connection
@@ -49,6 +57,17 @@ public class EditData
 	
 	private boolean isRecovering;
 	
+	/**
+	 * Stacks of the deploy entries that are currently available, together with the tier that they were picked for.
+	 * Cleared whenever the deploy list is resent, which happens when the conditions or the given items may have changed.
+	 */
+	private List<ItemStack> deployStacks;
+	private int deployTier;
+	/**
+	 * Copies of the inventory stacks that passed the last inventory check, so that unchanged slots don't need to be checked again.
+	 */
+	private final ItemStack[] checkedStacks = new ItemStack[PlayerInventory.INVENTORY_SIZE];
+	
 	public SburbConnection getConnection()
 	{
 		return connection;
@@ -80,11 +99,50 @@ public class EditData
 	
 	public void sendGivenItemsToEditor()
 	{
-		
-		ServerEditPacket packet = ServerEditPacket.givenItems(DeployList.getDeployListTag(player.server, connection));
+		invalidateDeployStacks();
+		ServerEditPacket packet = ServerEditPacket.givenItems(DeployList.getDeployListTag(player.server, connection, getDeployTier()));
 		MSPacketHandler.sendToPlayer(packet, getEditor());
 	}
 	
+	List<ItemStack> getDeployStacks()
+	{
+		if(deployStacks == null)
+		{
+			deployTier = SburbHandler.availableTier(player.server, connection.getClientIdentifier());
+			List<ItemStack> stacks = new ArrayList<>();
+			for(DeployEntry entry : DeployList.getItemList(connection, deployTier))
+				stacks.add(entry.getItemStack(connection, player.level));
+			deployStacks = Collections.unmodifiableList(stacks);
+		}
+		return deployStacks;
+	}
+	
+	int getDeployTier()
+	{
+		getDeployStacks();
+		return deployTier;
+	}
+	
+	void invalidateDeployStacks()
+	{
+		deployStacks = null;
+		Arrays.fill(checkedStacks, null);
+	}
+	
+	/**
+	 * @return true if the stack in the slot is the same as when it was last checked
+	 */
+	boolean isSlotUnchanged(int slot, ItemStack stack)
+	{
+		ItemStack checked = checkedStacks[slot];
+		return checked != null && ItemStack.matches(checked, stack);
+	}
+	
+	void markSlotChecked(int slot, ItemStack stack)
+	{
+		checkedStacks[slot] = stack.copy();
+	}
+	
 	public CompoundNBT writeRecoveryData()
 	{
 		CompoundNBT nbt = new CompoundNBT();
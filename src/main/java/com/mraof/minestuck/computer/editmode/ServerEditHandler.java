@@ -4,6 +4,7 @@ import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.entity.DecoyEntity;
 import com.mraof.minestuck.event.ConnectionClosedEvent;
+import com.mraof.minestuck.event.ConnectionCreatedEvent;
 import com.mraof.minestuck.event.SburbEvent;
 import com.mraof.minestuck.item.crafting.alchemy.GristCostRecipe;
 import com.mraof.minestuck.item.crafting.alchemy.GristHelper;
@@ -99,12 +100,21 @@ public final class ServerEditHandler	//TODO Consider splitting this class into t
 	{
 		reset(getData(event.getMinecraftServer(), event.getConnection()));
 		lastEditmodePos.remove(event.getConnection());
+		DeployList.onConditionsUpdated(event.getMinecraftServer());
+	}
+	
+	@SubscribeEvent
+	public static void onConnect(ConnectionCreatedEvent event)
+	{
+		//The tier available to editors may have changed
+		DeployList.onConditionsUpdated(event.getMinecraftServer());
 	}
 	
 	@SubscribeEvent
 	public static void onEntry(SburbEvent.OnEntry event)
 	{
 		lastEditmodePos.remove(event.getConnection());
+		DeployList.onConditionsUpdated(event.getMinecraftServer());
 	}
 	
 	@SubscribeEvent
@@ -266,16 +276,16 @@ public final class ServerEditHandler	//TODO Consider splitting this class into t
 	
 	public static EditData getData(PlayerEntity editor)
 	{
-		return MSExtraData.get(editor.level).findEditData(editData -> editData.getEditor() == editor);
+		return MSExtraData.get(editor.level).findEditData(editor);
 	}
 	
 	public static EditData getData(MinecraftServer server, SburbConnection c)
 	{
-		return MSExtraData.get(server).findEditData(editData -> editData.connection.getClientIdentifier().equals(c.getClientIdentifier()) && editData.connection.getServerIdentifier().equals(c.getServerIdentifier()));
+		return MSExtraData.get(server).findEditData(c);
 	}
 	
 	public static EditData getData(DecoyEntity decoy) {
-		return MSExtraData.get(decoy.getCommandSenderWorld()).findEditData(editData -> editData.getDecoy() == decoy);
+		return MSExtraData.get(decoy.getCommandSenderWorld()).findEditData(decoy);
 	}
 
 	private static BlockPos getEditmodeCenter(SburbConnection connection)
@@ -302,7 +312,7 @@ public final class ServerEditHandler	//TODO Consider splitting this class into t
 		int range = MSDimensions.isLandDimension(player.server, player.level.dimension()) ? MinestuckConfig.SERVER.landEditRange.get() : MinestuckConfig.SERVER.overworldEditRange.get();
 		BlockPos center = getEditmodeCenter(c);
 
-		updateInventory(player, c);
+		updateInventory(player, data);
 		updatePosition(player, range, center.getX(), center.getZ());
 		
 		player.setPortalCooldown();
@@ -536,18 +546,18 @@ public final class ServerEditHandler	//TODO Consider splitting this class into t
 		}
 	}
 	
-	public static void updateInventory(ServerPlayerEntity player, SburbConnection connection)
+	/**
+	 * Removes items that the editor shouldn't have. Only slots that have changed since the last check are looked at.
+	 */
+	public static void updateInventory(ServerPlayerEntity player, EditData data)
 	{
-		List<DeployEntry> deployList = DeployList.getItemList(player.getServer(), connection);
-		deployList.removeIf(entry -> entry.getCurrentCost(connection) == null);
-		List<ItemStack> itemList = new ArrayList<>();
-		deployList.forEach(deployEntry -> itemList.add(deployEntry.getItemStack(connection, player.level)));
+		List<ItemStack> itemList = data.getDeployStacks();
 		
 		boolean inventoryChanged = false;
 		for(int i = 0; i < player.inventory.items.size(); i++)
 		{
 			ItemStack stack = player.inventory.items.get(i);
-			if(stack.isEmpty())
+			if(stack.isEmpty() || data.isSlotUnchanged(i, stack))
 				continue;
 			if(GristCostRecipe.findCostForItem(stack, null, false, player.getCommandSenderWorld()) == null || !isBlockItem(stack.getItem()))
 			{
@@ -575,6 +585,7 @@ public final class ServerEditHandler	//TODO Consider splitting this class into t
 				stack.setCount(1);
 				inventoryChanged = true;
 			}
+			data.markSlotChecked(i, player.inventory.items.get(i));
 		}
 		
 		if(inventoryChanged)
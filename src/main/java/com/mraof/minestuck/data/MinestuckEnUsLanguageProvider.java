@@ -18,6 +18,7 @@ import com.mraof.minestuck.computer.SburbServer;
 import com.mraof.minestuck.entity.LotusFlowerEntity;
 import com.mraof.minestuck.entity.MSEntityTypes;
 import com.mraof.minestuck.entity.consort.MessageType;
+import com.mraof.minestuck.entry.EntryProcess;
 import com.mraof.minestuck.inventory.ConsortMerchantInventory;
 import com.mraof.minestuck.inventory.captchalogue.HashMapModus;
 import com.mraof.minestuck.item.MSItemGroup;
@@ -1362,6 +1363,7 @@ public class MinestuckEnUsLanguageProvider extends MinestuckLanguageProvider
 		addLand(TowersLandType.TOWERS, "Towers");
 		add(LandTypePair.FORMAT, "Land of %s and %s");
 		add(LandInfo.LAND_ENTRY, "Welcome to %s.");
+		add(EntryProcess.ENTRY_NEARBY, "Someone else is already entering nearby. Wait until they are done.");
 		
 		addStrife(KindAbstratusList.SWORD, "Bladekind");
 		addStrife(KindAbstratusList.BOW, "Bowkind");
@@ -1481,6 +1483,7 @@ public class MinestuckEnUsLanguageProvider extends MinestuckLanguageProvider
 		add(Generator.NO_AVAILABLE_TITLES, "No title was available to generate under current circumstances.");
 		
 		add(GristLayerInfo.INFO, "Grist types at this position; common: %s, uncommon: %s, any: %s");
+		add(BoondollarPricesCommand.STATISTICS, "Boondollar prices are indexed for %s items, with %s prices that depend on more than the item. %s lookups since the last reload, %s%% found through the index.");
 		add(CheckLandCommand.CHECK, "You are currently in %s.");
 		add(CheckLandCommand.FAIL, "You are currently not in a land dimension.");
 		add(SendGristCommand.SUCCESS, "Successfully gave grist to %s: %s");
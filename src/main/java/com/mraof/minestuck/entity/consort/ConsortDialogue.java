@@ -38,6 +38,12 @@ public class ConsortDialogue
 	private static final Logger LOGGER = LogManager.getLogger();
 	
 	private static final List<DialogueWrapper> messages = new LinkedList<>();
+	private static final Map<String, DialogueWrapper> messagesByName = new HashMap<>();
+	/**
+	 * Messages that pass all requirements other than the additional requirement for a certain consort and land,
+	 * which are put together the first time they are needed. Cleared whenever a message is added.
+	 */
+	private static final Map<CandidateKey, Candidates> candidateCache = new HashMap<>();
 	
 	/**
 	 * Make sure to call after land registry
@@ -442,6 +448,8 @@ public class ConsortDialogue
 		DialogueWrapper msg = new DialogueWrapper(weight);
 		msg.messageStart = message;
 		messages.add(msg);
+		messagesByName.putIfAbsent(message.getString(), msg);
+		candidateCache.clear();
 		return msg;
 	}
 	
@@ -467,41 +475,54 @@ public class ConsortDialogue
 	{
 		LandTypePair aspects = MSDimensions.getAspects(consort.getServer(), consort.homeDimension);
 		
+		CandidateKey key = new CandidateKey(consort.getConsortType(), consort.merchantType, aspects, hasHadMessage);
+		Candidates candidates = candidateCache.computeIfAbsent(key, ConsortDialogue::findCandidates);
+		
+		if(!candidates.hasAdditionalRequirements)
+			return WeightedRandom.getRandomItem(consort.level.random, candidates.messages, candidates.totalWeight);
+		
+		List<DialogueWrapper> list = new ArrayList<>();
+		for(DialogueWrapper message : candidates.messages)
+		{
+			if(message.additionalRequirement == null || message.additionalRequirement.apply(consort))
+				list.add(message);
+		}
+		
+		return WeightedRandom.getRandomItem(consort.level.random, list);
+	}
+	
+	private static Candidates findCandidates(CandidateKey key)
+	{
 		List<DialogueWrapper> list = new ArrayList<>();
 		
 		for(DialogueWrapper message : messages)
 		{
-			if(message.lockToConsort && hasHadMessage)
-				continue;
-			if(message.reqLand && aspects == null)
+			if(message.lockToConsort && key.hasHadMessage)
 				continue;
-			if(message.consortRequirement != null && !message.consortRequirement.contains(consort.getConsortType()))
+			if(message.reqLand && key.aspects == null)
 				continue;
-			if(message.aspect1Requirement != null && aspects != null && !message.aspect1Requirement.contains(aspects.getTerrain().getGroup()))
+			if(message.consortRequirement != null && !message.consortRequirement.contains(key.consortType))
 				continue;
-			if(message.aspect2Requirement != null && aspects != null && !message.aspect2Requirement.contains(aspects.getTitle().getGroup()))
+			if(message.aspect1Requirement != null && key.aspects != null && !message.aspect1Requirement.contains(key.aspects.getTerrain().getGroup()))
 				continue;
-			if(message.aspect1RequirementS != null && aspects != null && !message.aspect1RequirementS.contains(aspects.getTerrain()))
+			if(message.aspect2Requirement != null && key.aspects != null && !message.aspect2Requirement.contains(key.aspects.getTitle().getGroup()))
 				continue;
-			if(message.aspect2RequirementS != null && aspects != null && !message.aspect2RequirementS.contains(aspects.getTitle()))
+			if(message.aspect1RequirementS != null && key.aspects != null && !message.aspect1RequirementS.contains(key.aspects.getTerrain()))
 				continue;
-			if(message.merchantRequirement == null && consort.merchantType != EnumConsort.MerchantType.NONE
-					|| message.merchantRequirement != null && !message.merchantRequirement.contains(consort.merchantType))
+			if(message.aspect2RequirementS != null && key.aspects != null && !message.aspect2RequirementS.contains(key.aspects.getTitle()))
 				continue;
-			if(message.additionalRequirement != null && !message.additionalRequirement.apply(consort))
+			if(message.merchantRequirement == null && key.merchantType != EnumConsort.MerchantType.NONE
+					|| message.merchantRequirement != null && !message.merchantRequirement.contains(key.merchantType))
 				continue;
 			list.add(message);
 		}
 		
-		return WeightedRandom.getRandomItem(consort.level.random, list);
+		return new Candidates(list);
 	}
 	
 	public static DialogueWrapper getMessageFromString(String name)
 	{
-		for(DialogueWrapper message : messages)
-			if(message.getString().equals(name))
-				return message;
-		return null;
+		return messagesByName.get(name);
 	}
 	
 	public static class DialogueWrapper extends WeightedRandom.Item
@@ -637,6 +658,52 @@ public class ConsortDialogue
 		boolean apply(ConsortEntity consort);
 	}
 	
+	private static class CandidateKey
+	{
+		private final EnumConsort consortType;
+		private final MerchantType merchantType;
+		private final LandTypePair aspects;
+		private final boolean hasHadMessage;
+		
+		private CandidateKey(EnumConsort consortType, MerchantType merchantType, LandTypePair aspects, boolean hasHadMessage)
+		{
+			this.consortType = consortType;
+			this.merchantType = merchantType;
+			this.aspects = aspects;
+			this.hasHadMessage = hasHadMessage;
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+			CandidateKey that = (CandidateKey) o;
+			return hasHadMessage == that.hasHadMessage && consortType == that.consortType && merchantType == that.merchantType
+					&& (aspects == null ? that.aspects == null : that.aspects != null && aspects.getTerrain() == that.aspects.getTerrain() && aspects.getTitle() == that.aspects.getTitle());
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(consortType, merchantType, aspects != null ? aspects.getTerrain() : null, aspects != null ? aspects.getTitle() : null, hasHadMessage);
+		}
+	}
+	
+	private static class Candidates
+	{
+		private final List<DialogueWrapper> messages;
+		private final int totalWeight;
+		private final boolean hasAdditionalRequirements;
+		
+		private Candidates(List<DialogueWrapper> messages)
+		{
+			this.messages = messages;
+			this.totalWeight = WeightedRandom.getTotalWeight(messages);
+			this.hasAdditionalRequirements = messages.stream().anyMatch(message -> message.additionalRequirement != null);
+		}
+	}
+	
 	public static void serverStarting()
 	{
 		//debugPrintAll();
@@ -12,18 +12,40 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.network.IPacket;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.datasync.DataParameter;
+import net.minecraft.network.datasync.DataSerializers;
+import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.SoundEvents;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import net.minecraftforge.fml.network.NetworkHooks;
 
+import javax.annotation.Nullable;
+import java.util.*;
+
 public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 {	//TODO Perhaps use a data manager for grist type in the same way as the underling entity?
+	/**
+	 * The size scale derived from the grist value, which is synced since the value may change when grist entities are merged.
+	 */
+	private static final DataParameter<Float> SCALE = EntityDataManager.defineId(GristEntity.class, DataSerializers.FLOAT);
+	/**
+	 * Grist entities of the same type within the same cell of this size are merged into one.
+	 */
+	private static final double MERGE_CELL_SIZE = 1.0D;
+	private static final int MERGE_INTERVAL = 20;
+	/**
+	 * When a chunk has this many grist entities, new grist of a type that is already present is added to an existing entity instead.
+	 */
+	private static final int MAX_PER_CHUNK = 32;
+	
 	public int cycle;
 
 	public int gristAge = 0;
@@ -45,7 +67,7 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 	public GristEntity(World world, double x, double y, double z, GristAmount gristData)
 	{
 		super(MSEntityTypes.GRIST, world);
-		this.gristValue = gristData.getAmount();
+		this.setValue(gristData.getAmount());
 //		this.yOffset = this.height / 2.0F;
 		this.setPos(x, y, z);
 		this.yRot = (float)(Math.random() * 360.0D);
@@ -59,9 +81,99 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 		super(type, world);
 	}
 	
+	/**
+	 * Spawns the grist entity, unless the chunk that it is in already has too many grist entities.
+	 * In that case, the grist is added to the closest grist entity of the same type in that chunk if there is one.
+	 */
+	public static void spawn(World world, GristEntity grist)
+	{
+		int chunkX = MathHelper.floor(grist.getX()) >> 4, chunkZ = MathHelper.floor(grist.getZ()) >> 4;
+		AxisAlignedBB chunkBox = new AxisAlignedBB(chunkX << 4, 0, chunkZ << 4, (chunkX << 4) + 16, world.getMaxBuildHeight(), (chunkZ << 4) + 16);
+		List<GristEntity> inChunk = world.getEntitiesOfClass(GristEntity.class, chunkBox, Entity::isAlive);
+		
+		if(inChunk.size() >= MAX_PER_CHUNK)
+		{
+			GristEntity closest = null;
+			for(GristEntity other : inChunk)
+			{
+				if(other.gristType == grist.gristType && (closest == null || other.distanceToSqr(grist) < closest.distanceToSqr(grist)))
+					closest = other;
+			}
+			if(closest != null)
+			{
+				closest.absorb(grist);
+				return;
+			}
+		}
+		
+		world.addFreshEntity(grist);
+	}
+	
+	/**
+	 * Merges grist entities of the same type that are within {@link #MERGE_CELL_SIZE} of each other.
+	 * Entities are sorted into a grid with cells of that size, so that each entity only needs to be compared with entities in its own and the neighbouring cells.
+	 */
+	public static void mergeNearby(ServerWorld world)
+	{
+		if(world.getGameTime() % MERGE_INTERVAL != 0)
+			return;
+		
+		Map<GridKey, List<GristEntity>> cells = new HashMap<>();
+		for(Entity entity : world.getEntities(MSEntityTypes.GRIST, Entity::isAlive))
+		{
+			GristEntity grist = (GristEntity) entity;
+			GridKey key = new GridKey(grist);
+			GristEntity target = findMergeTarget(cells, key, grist);
+			if(target != null)
+				target.absorb(grist);
+			else cells.computeIfAbsent(key, k -> new ArrayList<>()).add(grist);
+		}
+	}
+	
+	@Nullable
+	private static GristEntity findMergeTarget(Map<GridKey, List<GristEntity>> cells, GridKey key, GristEntity grist)
+	{
+		for(int dx = -1; dx <= 1; dx++)
+			for(int dy = -1; dy <= 1; dy++)
+				for(int dz = -1; dz <= 1; dz++)
+				{
+					List<GristEntity> cell = cells.get(key.offset(dx, dy, dz));
+					if(cell == null)
+						continue;
+					for(GristEntity other : cell)
+						if(other.distanceToSqr(grist) <= MERGE_CELL_SIZE * MERGE_CELL_SIZE)
+							return other;
+				}
+		return null;
+	}
+	
+	private void absorb(GristEntity other)
+	{
+		setValue(gristValue + other.gristValue);
+		gristAge = Math.min(gristAge, other.gristAge);
+		other.gristValue = 0;
+		other.remove();
+	}
+	
+	private void setValue(long value)
+	{
+		gristValue = value;
+		entityData.set(SCALE, (float) Math.pow(value, .25));
+	}
+	
 	@Override
 	protected void defineSynchedData()
-	{}
+	{
+		entityData.define(SCALE, 1F);
+	}
+	
+	@Override
+	public void onSyncedDataUpdated(DataParameter<?> key)
+	{
+		if(SCALE.equals(key))
+			refreshDimensions();
+		super.onSyncedDataUpdated(key);
+	}
 	
 	/**
 	 * returns if this entity triggers Block.onEntityWalking on the blocks they walk on. used for spiders and wolves to
@@ -184,7 +296,7 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 	{
 		compound.putShort("Health", (short)this.gristHealth);
 		compound.putShort("Age", (short)this.gristAge);
-		compound.putLong("Value", (short)this.gristValue);
+		compound.putLong("Value", this.gristValue);
 		compound.putString("Type", gristType.getRegistryName().toString());
 	}
 	
@@ -194,7 +306,7 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 		this.gristHealth = compound.getShort("Health") & 255;
 		this.gristAge = compound.getShort("Age");
 		if(compound.contains("Value", Constants.NBT.TAG_ANY_NUMERIC))
-			this.gristValue = compound.getLong("Value");
+			this.setValue(compound.getLong("Value"));
 		if(compound.contains("Type", Constants.NBT.TAG_STRING))
 			this.gristType = GristType.read(compound, "Type");
 	}
@@ -244,11 +356,11 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 	@Override
 	public EntitySize getDimensions(Pose poseIn)
 	{
-		return super.getDimensions(poseIn).scale((float) Math.pow(gristValue, .25));
+		return super.getDimensions(poseIn).scale(entityData.get(SCALE));
 	}
 
 	public float getSizeByValue() {
-		return (float)(Math.pow((double)this.gristValue, 0.25D) / 3.0D);
+		return entityData.get(SCALE) / 3.0F;
 	}
 
 	@Override
@@ -262,7 +374,7 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 	public void readSpawnData(PacketBuffer data)
 	{
 		gristType = data.readRegistryIdSafe(GristType.class);
-		gristValue = data.readLong();
+		setValue(data.readLong());
 	}
 	
 	@Override
@@ -270,4 +382,43 @@ public class GristEntity extends Entity implements IEntityAdditionalSpawnData
 	{
 		return NetworkHooks.getEntitySpawningPacket(this);
 	}
+	
+	private static class GridKey
+	{
+		private final GristType type;
+		private final int x, y, z;
+		
+		private GridKey(GristEntity grist)
+		{
+			this(grist.gristType, MathHelper.floor(grist.getX() / MERGE_CELL_SIZE), MathHelper.floor(grist.getY() / MERGE_CELL_SIZE), MathHelper.floor(grist.getZ() / MERGE_CELL_SIZE));
+		}
+		
+		private GridKey(GristType type, int x, int y, int z)
+		{
+			this.type = type;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+		
+		private GridKey offset(int dx, int dy, int dz)
+		{
+			return new GridKey(type, x + dx, y + dy, z + dz);
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+			GridKey gridKey = (GridKey) o;
+			return x == gridKey.x && y == gridKey.y && z == gridKey.z && type == gridKey.type;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(type, x, y, z);
+		}
+	}
 }
\ No newline at end of file
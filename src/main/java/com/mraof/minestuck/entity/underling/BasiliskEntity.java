@@ -62,7 +62,7 @@ public class BasiliskEntity extends UnderlingEntity implements IEntityMultiPart
 	@Override
 	public GristSet getGristSpoils()
 	{
-		return GristHelper.generateUnderlingGristDrops(this, damageMap, 6);
+		return GristHelper.generateUnderlingGristDrops(this, damageRecord, 6);
 	}
 	
 	@Override
@@ -75,7 +75,7 @@ public class GiclopsEntity extends UnderlingEntity implements IBigEntity
 	@Override
 	public GristSet getGristSpoils()
 	{
-		return GristHelper.generateUnderlingGristDrops(this, damageMap, 10);
+		return GristHelper.generateUnderlingGristDrops(this, damageRecord, 10);
 	}
 	
 	@Override
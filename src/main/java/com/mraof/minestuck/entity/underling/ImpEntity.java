@@ -35,7 +35,7 @@ public class ImpEntity extends UnderlingEntity
 	@Override
 	public GristSet getGristSpoils()
 	{
-		return GristHelper.generateUnderlingGristDrops(this, damageMap, 1);
+		return GristHelper.generateUnderlingGristDrops(this, damageRecord, 1);
 	}
 	
 	@Override
@@ -59,7 +59,7 @@ public class OgreEntity extends UnderlingEntity
 	@Override
 	public GristSet getGristSpoils()
 	{
-		return GristHelper.generateUnderlingGristDrops(this, damageMap, 4);
+		return GristHelper.generateUnderlingGristDrops(this, damageRecord, 4);
 	}
 	
 	@Override
@@ -0,0 +1,108 @@
+package com.mraof.minestuck.entity.underling;
+
+import com.google.common.collect.ImmutableMap;
+import com.mraof.minestuck.player.IdentifierHandler;
+import com.mraof.minestuck.player.PlayerIdentifier;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Stores how much damage each player has done to an underling, which is used to split up grist and echeladder progress when it dies.
+ * Players are stored by their identifier id next to their damage in primitive arrays,
+ * which are created when the first player hits the underling and only grow if more players than usual join the fight.
+ * Damage that wasn't done by a player is counted separately.
+ */
+public class UnderlingDamageRecord
+{
+	private static final int INITIAL_CAPACITY = 4;
+	
+	private int[] playerIds;
+	private double[] playerDamage;
+	private int size;
+	private double otherDamage;
+	
+	/**
+	 * @param player the player that did the damage, or null for environmental or other non-player damage
+	 */
+	public void addDamage(@Nullable PlayerIdentifier player, double amount)
+	{
+		if(player == null)
+		{
+			otherDamage += amount;
+			return;
+		}
+		
+		int id = player.getId();
+		for(int i = 0; i < size; i++)
+		{
+			if(playerIds[i] == id)
+			{
+				playerDamage[i] += amount;
+				return;
+			}
+		}
+		
+		if(playerIds == null)
+		{
+			playerIds = new int[INITIAL_CAPACITY];
+			playerDamage = new double[INITIAL_CAPACITY];
+		} else if(size == playerIds.length)
+		{
+			playerIds = Arrays.copyOf(playerIds, size * 2);
+			playerDamage = Arrays.copyOf(playerDamage, size * 2);
+		}
+		playerIds[size] = id;
+		playerDamage[size] = amount;
+		size++;
+	}
+	
+	/**
+	 * @return the total damage done by players and by other sources
+	 */
+	public double getTotalDamage()
+	{
+		double total = otherDamage;
+		for(int i = 0; i < size; i++)
+			total += playerDamage[i];
+		return total;
+	}
+	
+	/**
+	 * @return the number of players that have damaged the underling
+	 */
+	public int getPlayerCount()
+	{
+		return size;
+	}
+	
+	/**
+	 * @return the identifier of the player with the given index, or null if the identifier is no longer known
+	 */
+	@Nullable
+	public PlayerIdentifier getPlayer(int index)
+	{
+		return IdentifierHandler.getById(playerIds[index]);
+	}
+	
+	public double getPlayerDamage(int index)
+	{
+		return playerDamage[index];
+	}
+	
+	/**
+	 * @return a map of the damage done by each player, without damage from other sources
+	 */
+	public Map<PlayerIdentifier, Double> asMap()
+	{
+		ImmutableMap.Builder<PlayerIdentifier, Double> builder = ImmutableMap.builder();
+		for(int i = 0; i < size; i++)
+		{
+			PlayerIdentifier player = getPlayer(i);
+			if(player != null)
+				builder.put(player, playerDamage[i]);
+		}
+		return builder.build();
+	}
+}
\ No newline at end of file
@@ -52,7 +52,7 @@ public abstract class UnderlingEntity extends CreatureEntity implements IMob
 	
 	private static final float maxSharedProgress = 2;    //The multiplier for the maximum amount progress that can be gathered from each enemy with the group fight bonus
 	
-	protected Map<PlayerIdentifier, Double> damageMap = new HashMap<>();    //Map that stores how much damage each player did to this to this underling. Null is used for environmental or other non-player damage
+	protected final UnderlingDamageRecord damageRecord = new UnderlingDamageRecord();    //Stores how much damage each player did to this underling, together with environmental or other non-player damage
 	
 	public UnderlingEntity(EntityType<? extends UnderlingEntity> type, World world, int consortRep)
 	{
@@ -176,7 +176,7 @@ public abstract class UnderlingEntity extends CreatureEntity implements IMob
 				for(GristAmount gristAmount : grist.getAmounts())
 				{
 					if(gristAmount.getAmount() > 0)
-						this.level.addFreshEntity(new GristEntity(level, randX(), this.getY(), randZ(), gristAmount));
+						GristEntity.spawn(level, new GristEntity(level, randX(), this.getY(), randZ(), gristAmount));
 				}
 			} else
 			{
@@ -189,7 +189,7 @@ public abstract class UnderlingEntity extends CreatureEntity implements IMob
 					if(candy > 0)
 						this.level.addFreshEntity(new ItemEntity(level, randX(), this.getY(), randZ(), candyItem));
 					if(gristAmount > 0)
-						this.level.addFreshEntity(new GristEntity(level, randX(), this.getY(), randZ(),new GristAmount(gristType.getType(), gristAmount)));
+						GristEntity.spawn(level, new GristEntity(level, randX(), this.getY(), randZ(),new GristAmount(gristType.getType(), gristAmount)));
 				}
 			}
 			
@@ -308,9 +308,7 @@ public abstract class UnderlingEntity extends CreatureEntity implements IMob
 		PlayerIdentifier player = null;
 		if(source.getEntity() instanceof ServerPlayerEntity)
 			player = IdentifierHandler.encode((ServerPlayerEntity) source.getEntity());
-		if(damageMap.containsKey(player))
-			damageMap.put(player, damageMap.get(player) + amount);
-		else damageMap.put(player, (double) amount);
+		damageRecord.addDamage(player, amount);
 	}
 	
 	@Override
@@ -323,34 +321,35 @@ public abstract class UnderlingEntity extends CreatureEntity implements IMob
 	
 	protected void computePlayerProgress(int progress)
 	{
-		double totalDamage = 0;
-		for(Double i : damageMap.values())
-			totalDamage += i;
+		double totalDamage = damageRecord.getTotalDamage();
 		if(totalDamage < this.getMaxHealth())
 			totalDamage = this.getMaxHealth();
 		
 		int maxProgress = (int) (progress * maxSharedProgress);
-		damageMap.remove(null);
-		PlayerIdentifier[] playerList = damageMap.keySet().toArray(new PlayerIdentifier[0]);
-		double[] modifiers = new double[playerList.length];
+		int playerCount = damageRecord.getPlayerCount();
+		double[] modifiers = new double[playerCount];
 		double totalModifier = 0;
 		
-		for(int i = 0; i < playerList.length; i++)
+		for(int i = 0; i < playerCount; i++)
 		{
-			double f = damageMap.get(playerList[i]) / totalDamage;
+			double f = damageRecord.getPlayerDamage(i) / totalDamage;
 			modifiers[i] = 2 * f - f * f;
 			totalModifier += modifiers[i];
 		}
 		
-		if(playerList.length > 0)
-			Debug.debugf("%s players are splitting on %s progress from %s", playerList.length, progress, getType().getRegistryName());
+		if(playerCount > 0)
+			Debug.debugf("%s players are splitting on %s progress from %s", playerCount, progress, getType().getRegistryName());
 		
-		if(totalModifier > maxSharedProgress)
-			for(int i = 0; i < playerList.length; i++)
-				Echeladder.increaseProgress(playerList[i], level, (int) (maxProgress*modifiers[i]/totalModifier));
-		else
-			for(int i = 0; i < playerList.length; i++)
-				Echeladder.increaseProgress(playerList[i], level, (int) (progress*modifiers[i]));
+		for(int i = 0; i < playerCount; i++)
+		{
+			PlayerIdentifier player = damageRecord.getPlayer(i);
+			if(player == null)
+				continue;
+			if(totalModifier > maxSharedProgress)
+				Echeladder.increaseProgress(player, level, (int) (maxProgress*modifiers[i]/totalModifier));
+			else
+				Echeladder.increaseProgress(player, level, (int) (progress*modifiers[i]));
+		}
 	}
 	
 	protected static void firstKillBonus(Entity killer, byte type)
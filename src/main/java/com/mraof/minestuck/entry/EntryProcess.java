@@ -1,5 +1,6 @@
 package com.mraof.minestuck.entry;
 
+import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.block.GateBlock;
 import com.mraof.minestuck.block.MSBlocks;
@@ -29,27 +30,48 @@ import net.minecraft.util.RegistryKey;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
 import net.minecraft.util.text.StringTextComponent;
 import net.minecraft.util.text.TextFormatting;
+import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.lighting.WorldLightManager;
 import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.server.TicketType;
 import net.minecraftforge.common.util.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
+/**
+ * Moves the blocks and entities around a player into their land when they enter.
+ * The work is split into stages that are spread over several ticks within the time budget set by the config,
+ * and each stage works through the area one chunk at a time:
+ * blocks are first captured from the overworld, then written into the land, after which the player and entities are transferred in a single tick,
+ * and finally the crater is removed from the overworld.
+ * Until the player is transferred, they are held in place, are protected from damage, and blocks in the area can't be placed or broken by players.
+ * Other changes to the area, such as explosions, fluids or pistons, are not prevented. Captured states are therefore checked against the world again as they are written,
+ * which leaves only the time between writing a chunk and the transfer for such changes to go unnoticed.
+ */
 public class EntryProcess
 {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
+	public static final String ENTRY_NEARBY = "minestuck.entry_nearby";
+	
 	private static final Set<EntryBlockProcessing> blockProcessors = new HashSet<>();
+	private static final List<EntryProcess> activeProcesses = new ArrayList<>();
+	private static final TicketType<ChunkPos> ENTRY_TICKET = TicketType.create(Minestuck.MOD_ID + ":entry", Comparator.comparingLong(ChunkPos::toLong));
+	private static final Set<Heightmap.Type> HEIGHTMAPS = EnumSet.of(Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE);
 	
 	/**
 	 * Not thread-safe. Make sure to only call this on the main thread
@@ -67,13 +89,43 @@ public class EntryProcess
 	private int topY;
 	private BlockPos origin;
 	private boolean creative;
-	private HashSet<BlockMove> blockMoves;
+	
+	private ServerPlayerEntity player;
+	private PlayerIdentifier identifier;
+	private ServerWorld sourceWorld, destWorld;
+	private double holdX, holdY, holdZ;
+	
+	private Stage stage;
+	private boolean isDone;
+	/**
+	 * The columns of the area that is brought along, ordered by the chunk that they are in before entry.
+	 */
+	private List<Column> columns;
+	/**
+	 * The same columns ordered by the chunk that they are moved to.
+	 */
+	private List<Column> destColumns;
+	private int columnIndex;
+	private final Map<Long, CapturedSection> capturedSections = new HashMap<>();
+	private CapturedSection lastCapturedSection;
+	private long lastCapturedSectionKey;
+	private final List<BlockPos> tileEntityPositions = new ArrayList<>();
+	private boolean foundComputer;
+	private int maxY;
+	private AxisAlignedBB entityTeleportBB;
+	private List<Entity> remainingEntities;
+	
+	private long transferGameTime;
+	private Chunk lastSourceChunk;
+	
+	private long startTime, stageTime;
+	private int stageTicks;
 	
 	public void onArtifactActivated(ServerPlayerEntity player)
 	{
 		try
 		{
-			if(player.level.dimension() != World.NETHER)
+			if(player.level.dimension() != World.NETHER && !isEntering(player))
 			{
 				if(!TitleSelectionHook.performEntryCheck(player))
 					return;
@@ -105,6 +157,12 @@ public class EntryProcess
 						return;
 					}
 					
+					if(overlapsActiveEntry(player.level, player.blockPosition(), artifactRange))
+					{
+						player.sendMessage(new TranslationTextComponent(ENTRY_NEARBY), Util.NIL_UUID);
+						return;
+					}
+					
 					RegistryKey<World> landDimension = SkaianetHandler.get(player.level).prepareEntry(identifier);
 					if(landDimension == null)
 					{
@@ -119,231 +177,655 @@ public class EntryProcess
 							return;
 						}
 						
-						if(this.prepareDestination(player.blockPosition(), player, oldWorld))
-						{
-							moveBlocks(oldWorld, newWorld);
-							if(Teleport.teleportEntity(player, newWorld) != null)
-							{
-								finalizeDestination(player, oldWorld, newWorld);
-								SkaianetHandler.get(player.level).onEntry(identifier);
-							} else
-							{
-								player.sendMessage(new StringTextComponent("Entry failed. Unable to teleport you!"), Util.NIL_UUID);
-							}
-						}
+						start(player, identifier, oldWorld, newWorld);
 					}
 				}
 			}
 		} catch(Exception e)
 		{
 			LOGGER.error("Exception when {} tried to enter their land.", player.getName().getString(), e);
-			player.sendMessage(new StringTextComponent("[Minestuck] Something went wrong during entry. "+ (player.getServer().isDedicatedServer()?"Check the console for the error message.":"Notify the server owner about this.")).withStyle(TextFormatting.RED), Util.NIL_UUID);
+			sendErrorMessage(player);
+		}
+	}
+	
+	private static void sendErrorMessage(ServerPlayerEntity player)
+	{
+		player.sendMessage(new StringTextComponent("[Minestuck] Something went wrong during entry. "+ (player.getServer().isDedicatedServer()?"Check the console for the error message.":"Notify the server owner about this.")).withStyle(TextFormatting.RED), Util.NIL_UUID);
+	}
+	
+	/**
+	 * Ticks all entries that are in progress. Should be called once at the end of each server tick.
+	 */
+	public static void tickProcesses()
+	{
+		activeProcesses.removeIf(EntryProcess::tick);
+	}
+	
+	public static void clear()
+	{
+		activeProcesses.clear();
+	}
+	
+	/**
+	 * @return true if the player is in the middle of entering, and has not yet been moved to their land
+	 */
+	public static boolean isEntering(Entity entity)
+	{
+		for(EntryProcess process : activeProcesses)
+			if(process.player == entity && process.stage.isBeforeTransfer())
+				return true;
+		return false;
+	}
+	
+	/**
+	 * @return true if the block at this position is about to be brought along by entry, and should therefore not be changed
+	 */
+	public static boolean isMovingBlock(IWorld world, BlockPos pos)
+	{
+		for(EntryProcess process : activeProcesses)
+		{
+			if(process.sourceWorld == world && process.stage.isBeforeTransfer()
+					&& Math.abs(pos.getX() - process.origin.getX()) <= process.artifactRange
+					&& Math.abs(pos.getY() - process.origin.getY()) <= process.artifactRange
+					&& Math.abs(pos.getZ() - process.origin.getZ()) <= process.artifactRange)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Both entries would capture the blocks in the overlapping part, and bring a copy of them to each land.
+	 * @return true if an area around the given position would overlap with the area of an entry in progress
+	 */
+	private static boolean overlapsActiveEntry(World world, BlockPos pos, int range)
+	{
+		for(EntryProcess process : activeProcesses)
+		{
+			int maxDistance = range + process.artifactRange + 1;
+			if(process.sourceWorld == world && process.origin.distSqr(pos) <= maxDistance * maxDistance)
+				return true;
 		}
+		return false;
 	}
 	
-	private boolean prepareDestination(BlockPos origin, ServerPlayerEntity player, ServerWorld worldserver0)
+	private void start(ServerPlayerEntity player, PlayerIdentifier identifier, ServerWorld oldWorld, ServerWorld newWorld)
 	{
+		LOGGER.info("Starting entry for player {}", player.getName().getString());
 		
-		blockMoves = new HashSet<>();
+		this.player = player;
+		this.identifier = identifier;
+		this.sourceWorld = oldWorld;
+		this.destWorld = newWorld;
+		holdX = player.getX();
+		holdY = player.getY();
+		holdZ = player.getZ();
 		
-		LOGGER.info("Starting entry for player {}", player.getName().getString());
+		origin = player.blockPosition();
 		int x = origin.getX();
 		int y = origin.getY();
 		int z = origin.getZ();
-		this.origin = origin;
-		
 		creative = player.gameMode.isCreative();
-		
-		topY = MinestuckConfig.SERVER.adaptEntryBlockHeight.get() ? getTopHeight(worldserver0, x, y, z) : y + artifactRange;
-		yDiff = 127 - topY;
+		maxY = y;
 		xDiff = 0 - x;
 		zDiff = 0 - z;
 		
-		LOGGER.debug("Loading block movements...");
-		long time = System.currentTimeMillis();
-		int bl = 0;
-		boolean foundComputer = false;
+		columns = new ArrayList<>();
 		for(int blockX = x - artifactRange; blockX <= x + artifactRange; blockX++)
 		{
 			int zWidth = (int) Math.sqrt((artifactRange+0.5) * (artifactRange+0.5) - (blockX - x) * (blockX - x));
 			for(int blockZ = z - zWidth; blockZ <= z + zWidth; blockZ++)
 			{
-				Chunk c = worldserver0.getChunk(blockX >> 4, blockZ >> 4);
-				
 				int height = (int) Math.sqrt(artifactRange * artifactRange - (((blockX - x) * (blockX - x) + (blockZ - z) * (blockZ - z)) / 2F));
-				
-				int blockY;
-				for(blockY = Math.max(0, y - height); blockY <= Math.min(topY, y + height); blockY++)
+				columns.add(new Column(blockX, blockZ, Math.max(0, y - height), Math.min(255, y + height)));
+			}
+		}
+		columns.sort(Comparator.<Column>comparingInt(column -> column.x >> 4).thenComparingInt(column -> column.z >> 4));
+		
+		addTickets();
+		startTime = System.nanoTime();
+		stage = Stage.CAPTURE;
+		activeProcesses.add(this);
+	}
+	
+	/**
+	 * @return true if the process is done
+	 */
+	private boolean tick()
+	{
+		try
+		{
+			if(stage.isBeforeTransfer() && !holdPlayer())
+			{
+				abort(null);
+				return true;
+			}
+			
+			long time = System.nanoTime();
+			long endTime = time + MinestuckConfig.SERVER.entryTickBudget.get() * 1_000_000L;
+			stageTicks++;
+			
+			while(!isDone && System.nanoTime() < endTime)
+			{
+				long stageStart = System.nanoTime();
+				boolean finished = runStage(endTime);
+				stageTime += System.nanoTime() - stageStart;
+				if(!finished)
+					break;
+				if(!isDone)
+					nextStage();
+			}
+		} catch(Exception e)
+		{
+			LOGGER.error("Exception during the {} stage of entry for {}.", stage, player.getName().getString(), e);
+			sendErrorMessage(player);
+			abort(null);
+		}
+		
+		return isDone;
+	}
+	
+	/**
+	 * @return true if the current stage has finished
+	 */
+	private boolean runStage(long endTime)
+	{
+		switch(stage)
+		{
+			case CAPTURE:
+				return captureBlocks(endTime);
+			case WRITE:
+				return writeBlocks(endTime);
+			case TRANSFER:
+				transfer();
+				return true;
+			case REMOVE:
+				return removeOriginalBlocks(endTime);
+			default:
+				throw new IllegalStateException("Unknown entry stage " + stage);
+		}
+	}
+	
+	private void nextStage()
+	{
+		LOGGER.info("Entry stage {} for {} took {} ms spread over {} ticks", stage, player.getName().getString(), stageTime / 1_000_000, Math.max(1, stageTicks));
+		stageTime = 0;
+		stageTicks = 0;
+		columnIndex = 0;
+		
+		switch(stage)
+		{
+			case CAPTURE:
+				if(!foundComputer && MinestuckConfig.SERVER.needComputer.get())
 				{
-					BlockPos pos = new BlockPos(blockX, blockY, blockZ);
-					BlockPos pos1 = pos.offset(xDiff, yDiff, zDiff);
-					BlockState block = worldserver0.getBlockState(pos);
-					TileEntity te = worldserver0.getBlockEntity(pos);
-					
-					Block gotBlock = block.getBlock();
-					
-					if(gotBlock == Blocks.BEDROCK || gotBlock == Blocks.NETHER_PORTAL)
-					{
-						blockMoves.add(new BlockMove(c, pos, pos1, Blocks.AIR.defaultBlockState(), true));
-						continue;
-					}
-					else if(!creative && (gotBlock == Blocks.COMMAND_BLOCK || gotBlock == Blocks.CHAIN_COMMAND_BLOCK || gotBlock == Blocks.REPEATING_COMMAND_BLOCK))
-					{
-						player.displayClientMessage(new StringTextComponent("You are not allowed to move command blocks."), false);
-						return false;
-					} else if(te instanceof ComputerTileEntity)		//If the block is a computer
-					{
-						if(!((ComputerTileEntity)te).owner.equals(IdentifierHandler.encode((PlayerEntity) player)))	//You can't Enter with someone else's computer
-						{
-							player.displayClientMessage(new StringTextComponent("You are not allowed to move other players' computers."), false);
-							return false;
-						}
-						
-						foundComputer = true;	//You have a computer in range. That means you're taking your computer with you when you Enter. Smart move.
-					}
-					
-					//Shouldn't this line check if the block is an edge block?
-					blockMoves.add(new BlockMove(c, pos, pos1, block, false));
+					abort("There is no computer in range.");
+					return;
 				}
 				
-				//What does this code accomplish?
-				for(blockY += yDiff; blockY <= 255; blockY++)
+				topY = MinestuckConfig.SERVER.adaptEntryBlockHeight.get() ? maxY : origin.getY() + artifactRange;
+				yDiff = 127 - topY;
+				destColumns = new ArrayList<>(columns);
+				destColumns.sort(Comparator.<Column>comparingInt(column -> (column.x + xDiff) >> 4).thenComparingInt(column -> (column.z + zDiff) >> 4));
+				stage = Stage.WRITE;
+				break;
+			case WRITE:
+				stage = Stage.TRANSFER;
+				break;
+			case TRANSFER:
+				stage = Stage.REMOVE;
+				break;
+			case REMOVE:
+				removeCraterEntities();
+				finish();
+				LOGGER.info("Entry finished after {} ms", (System.nanoTime() - startTime) / 1_000_000);
+				break;
+		}
+	}
+	
+	/**
+	 * Keeps the player where they were when entry started.
+	 * @return false if the player can no longer enter
+	 */
+	private boolean holdPlayer()
+	{
+		if(player.hasDisconnected() || !player.isAlive() || player.level != sourceWorld)
+			return false;
+		
+		if(player.distanceToSqr(holdX, holdY, holdZ) > 0.25)
+			player.connection.teleport(holdX, holdY, holdZ, player.yRot, player.xRot);
+		player.fallDistance = 0;
+		return true;
+	}
+	
+	private void abort(@Nullable String message)
+	{
+		LOGGER.warn("Entry for {} was cancelled during the {} stage", player.getName().getString(), stage);
+		if(message != null)
+			player.displayClientMessage(new StringTextComponent(message), false);
+		finish();
+	}
+	
+	private void finish()
+	{
+		isDone = true;
+		capturedSections.clear();
+		removeTickets();
+	}
+	
+	private void addTickets()
+	{
+		int radius = Math.min(32, (artifactRange >> 4) + 2);
+		ChunkPos sourceCenter = new ChunkPos(origin), destCenter = new ChunkPos(origin.offset(xDiff, 0, zDiff));
+		sourceWorld.getChunkSource().addRegionTicket(ENTRY_TICKET, sourceCenter, radius, sourceCenter);
+		destWorld.getChunkSource().addRegionTicket(ENTRY_TICKET, destCenter, radius, destCenter);
+	}
+	
+	private void removeTickets()
+	{
+		int radius = Math.min(32, (artifactRange >> 4) + 2);
+		ChunkPos sourceCenter = new ChunkPos(origin), destCenter = new ChunkPos(origin.offset(xDiff, 0, zDiff));
+		sourceWorld.getChunkSource().removeRegionTicket(ENTRY_TICKET, sourceCenter, radius, sourceCenter);
+		destWorld.getChunkSource().removeRegionTicket(ENTRY_TICKET, destCenter, radius, destCenter);
+	}
+	
+	/**
+	 * Captures the blocks to bring along, one chunk at a time, and checks that no block prevents entry.
+	 */
+	private boolean captureBlocks(long endTime)
+	{
+		while(columnIndex < columns.size())
+		{
+			Column first = columns.get(columnIndex);
+			Chunk chunk = sourceWorld.getChunk(first.x >> 4, first.z >> 4);
+			
+			for(; columnIndex < columns.size() && columns.get(columnIndex).isInSameChunk(first, 0, 0); columnIndex++)
+			{
+				Column column = columns.get(columnIndex);
+				for(int blockY = column.bottom; blockY <= column.top; blockY++)
 				{
-					//The first BlockPos isn't used for this operation.
-					blockMoves.add(new BlockMove(c, BlockPos.ZERO, new BlockPos(blockX + xDiff, blockY, blockZ + zDiff), Blocks.AIR.defaultBlockState(), false));
+					if(!captureBlock(chunk, column.x, blockY, column.z))
+						return false;
 				}
 			}
+			
+			if(System.nanoTime() >= endTime)
+				break;
 		}
 		
-		if(!foundComputer && MinestuckConfig.SERVER.needComputer.get())
+		return columnIndex >= columns.size();
+	}
+	
+	private boolean captureBlock(Chunk chunk, int x, int y, int z)
+	{
+		ChunkSection section = chunk.getSections()[y >> 4];
+		BlockState state = section == Chunk.EMPTY_SECTION ? Blocks.AIR.defaultBlockState() : section.getBlockState(x & 15, y & 15, z & 15);
+		Block block = state.getBlock();
+		
+		if(!state.isAir() && y > maxY)
+			maxY = y;
+		
+		if(block == Blocks.BEDROCK || block == Blocks.NETHER_PORTAL)
+		{
+			state = Blocks.AIR.defaultBlockState();
+		}
+		else if(!creative && isCommandBlock(block))
 		{
-			player.displayClientMessage(new StringTextComponent("There is no computer in range."), false);
+			abort("You are not allowed to move command blocks.");
 			return false;
+		} else if(state.hasTileEntity())
+		{
+			BlockPos pos = new BlockPos(x, y, z);
+			TileEntity te = chunk.getBlockEntity(pos, Chunk.CreateEntityType.CHECK);
+			if(te instanceof ComputerTileEntity)		//If the block is a computer
+			{
+				if(!((ComputerTileEntity)te).owner.equals(identifier))	//You can't Enter with someone else's computer
+				{
+					abort("You are not allowed to move other players' computers.");
+					return false;
+				}
+				
+				foundComputer = true;	//You have a computer in range. That means you're taking your computer with you when you Enter. Smart move.
+			}
+			if(te != null)
+				tileEntityPositions.add(pos);
 		}
 		
+		capturedSections.computeIfAbsent(SectionPos.asLong(x >> 4, y >> 4, z >> 4), pos -> new CapturedSection()).set(x, y, z, state);
 		return true;
 	}
 	
-	private void moveBlocks(ServerWorld worldserver0, ServerWorld worldserver1)
+	@Nullable
+	private BlockState getCapturedState(int x, int y, int z)
 	{
-		//This is split into two sections because moves that require block updates should happen after the ones that don't.
-		//This helps to ensure that "anchored" blocks like torches still have the blocks they are anchored to when they update.
-		//Some blocks like this (confirmed for torches, rails, and glowystone) will break themselves if they update without their anchor.
-		LOGGER.debug("Moving blocks...");
-		HashSet<BlockMove> blockMoves2 = new HashSet<>();
-		for(BlockMove move : blockMoves)
-		{
-			if(move.update)
-				move.copy(worldserver1, worldserver1.getChunk(move.dest));
-			else
-				blockMoves2.add(move);
-		}
-		for(BlockMove move : blockMoves2)
+		//Consecutive lookups are usually in the same section
+		long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+		if(lastCapturedSection == null || lastCapturedSectionKey != key)
 		{
-			move.copy(worldserver1, worldserver1.getChunk(move.dest));
+			lastCapturedSection = capturedSections.get(key);
+			lastCapturedSectionKey = key;
 		}
-		blockMoves2.clear();
+		return lastCapturedSection != null ? lastCapturedSection.get(x, y, z) : null;
+	}
+	
+	/**
+	 * @return the state to place at the given source height of the column in the land, which is air above the blocks that are brought along
+	 */
+	private BlockState getStateToPlace(Column column, int blockY)
+	{
+		BlockState state = blockY <= Math.min(topY, column.top) ? getCapturedState(column.x, blockY, column.z) : null;
+		return state != null ? validateCapturedState(column.x, blockY, column.z, state) : Blocks.AIR.defaultBlockState();
+	}
+	
+	/**
+	 * Checks the captured state against the current state in the overworld, as the area may have changed since it was captured.
+	 * If it has changed, the capture is updated so that what is brought along matches what is later removed from the overworld.
+	 * Must be called right after {@link #getCapturedState(int, int, int)} for the same position.
+	 */
+	private BlockState validateCapturedState(int x, int y, int z, BlockState captured)
+	{
+		if(lastSourceChunk == null || lastSourceChunk.getPos().x != x >> 4 || lastSourceChunk.getPos().z != z >> 4)
+			lastSourceChunk = sourceWorld.getChunk(x >> 4, z >> 4);
+		ChunkSection section = lastSourceChunk.getSections()[y >> 4];
+		BlockState state = section == Chunk.EMPTY_SECTION ? Blocks.AIR.defaultBlockState() : section.getBlockState(x & 15, y & 15, z & 15);
+		if(state == captured)
+			return captured;
+		
+		//Blocks that would have been left out or stopped entry during capture are not brought along
+		Block block = state.getBlock();
+		if(block == Blocks.BEDROCK || block == Blocks.NETHER_PORTAL || !creative && isCommandBlock(block))
+			state = Blocks.AIR.defaultBlockState();
+		else if(state.hasTileEntity() && !captured.hasTileEntity())
+			tileEntityPositions.add(new BlockPos(x, y, z));
+		
+		lastCapturedSection.set(x, y, z, state);
+		return state;
 	}
 	
-	private void finalizeDestination(Entity player, ServerWorld worldserver0, ServerWorld worldserver1)
+	/**
+	 * Writes the captured blocks straight into the sections of the land, one chunk at a time,
+	 * and clears out everything above them. Heightmaps are recalculated once for each finished chunk.
+	 * Sections that are entirely covered by the area are replaced with newly filled sections,
+	 * while the block by block path is kept for the sections along the edge of the area.
+	 * Lighting and block updates are left for {@link PostEntryTask}.
+	 */
+	private boolean writeBlocks(long endTime)
 	{
-		if(player instanceof ServerPlayerEntity)
+		WorldLightManager lightEngine = destWorld.getChunkSource().getLightEngine();
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		
+		while(columnIndex < destColumns.size())
 		{
-			int x = origin.getX();
-			int y = origin.getY();
-			int z = origin.getZ();
+			Column first = destColumns.get(columnIndex);
+			Chunk chunk = destWorld.getChunk((first.x + xDiff) >> 4, (first.z + zDiff) >> 4);
+			ChunkSection[] sections = chunk.getSections();
+			boolean[] wasEmpty = new boolean[sections.length];
+			for(int i = 0; i < sections.length; i++)
+				wasEmpty[i] = sections[i] == Chunk.EMPTY_SECTION || sections[i].isEmpty();
 			
-			LOGGER.debug("Teleporting entities...");
-			//The fudge here is to ensure that the AABB will always contain every entity meant to be moved.
-			// As entities outside the radius will be excluded from transport anyway, this is fine.
-			AxisAlignedBB entityTeleportBB = player.getBoundingBox().inflate(artifactRange + 0.5);
-			List<Entity> list = worldserver0.getEntities(player, entityTeleportBB);
-			Iterator<Entity> iterator = list.iterator();
-			while (iterator.hasNext())
+			Column[] chunkColumns = new Column[256];
+			int columnCount = 0, fullFromY = 0;
+			for(; columnIndex < destColumns.size() && destColumns.get(columnIndex).isInSameChunk(first, xDiff, zDiff); columnIndex++)
 			{
-				Entity e = iterator.next();
-				if(origin.distSqr(e.getX(), e.getY(), e.getZ(), true) <= artifactRange*artifactRange)
-				{
-					if(MinestuckConfig.SERVER.entryCrater.get() || e instanceof PlayerEntity || !creative && e instanceof ItemEntity)
-					{
-						if(e instanceof PlayerEntity && ServerEditHandler.getData((PlayerEntity) e) != null)
-							ServerEditHandler.reset(ServerEditHandler.getData((PlayerEntity) e));
-						else
-						{
-							Teleport.teleportEntity(e, worldserver1, e.getX() + xDiff, e.getY() + yDiff, e.getZ() + zDiff);
-						}
-						//These entities should no longer be in the world, and this list is later used for entities that *should* remain.
-						iterator.remove();
-					}
-					else	//Copy instead of teleport
-					{
-						Entity newEntity = e.getType().create(worldserver1);
-						if (newEntity != null)
-						{
-							newEntity.restoreFrom(e);
-							newEntity.setPos(newEntity.getX() + xDiff, newEntity.getY() + yDiff, newEntity.getZ() + zDiff);
-							worldserver1.addFreshEntity(newEntity);
-						}
-					}
-				}
+				Column column = destColumns.get(columnIndex);
+				chunkColumns[((column.z + zDiff) & 15) << 4 | (column.x + xDiff) & 15] = column;
+				columnCount++;
+				fullFromY = Math.max(fullFromY, column.bottom + yDiff);
 			}
 			
-			LOGGER.debug("Removing original blocks");
-			for(BlockMove move : blockMoves)
+			//Sections are entirely covered if every column of the chunk is in the area, and the section is above the bottom of every column
+			boolean[] copiedSections = new boolean[sections.length];
+			if(columnCount == chunkColumns.length)
 			{
-				removeTileEntity(worldserver0, move.source, creative);	//Tile entities need special treatment
-				
-				if(MinestuckConfig.SERVER.entryCrater.get() && worldserver0.getBlockState(move.source).getBlock() != Blocks.BEDROCK)
+				for(int i = (fullFromY + 15) >> 4; i < sections.length; i++)
+					copiedSections[i] = fillSection(chunk, i, chunkColumns, lightEngine);
+			}
+			
+			for(Column column : chunkColumns)
+			{
+				if(column == null)
+					continue;
+				for(int destY = Math.max(0, column.bottom + yDiff); destY <= 255; destY++)
 				{
-					if(move.update)
-						worldserver0.setBlock(move.source, Blocks.AIR.defaultBlockState(), Constants.BlockFlags.DEFAULT);
-					else
-						worldserver0.setBlock(move.source, Blocks.AIR.defaultBlockState(), Constants.BlockFlags.BLOCK_UPDATE);
+					if(!copiedSections[destY >> 4])
+						writeBlock(chunk, pos.set(column.x + xDiff, destY, column.z + zDiff), getStateToPlace(column, destY - yDiff), lightEngine);
 				}
 			}
-			blockMoves.clear();
 			
-			player.teleportTo(player.getX() + xDiff, player.getY() + yDiff, player.getZ() + zDiff);
+			for(int i = 0; i < sections.length; i++)
+			{
+				boolean isEmpty = sections[i] == Chunk.EMPTY_SECTION || sections[i].isEmpty();
+				if(isEmpty != wasEmpty[i])
+					lightEngine.updateSectionStatus(SectionPos.of(chunk.getPos(), i), isEmpty);
+			}
+			Heightmap.primeHeightmaps(chunk, HEIGHTMAPS);
 			
-			//Remove entities that were generated in the process of teleporting entities and removing blocks.
-			// This is usually caused by "anchored" blocks being updated between the removal of their anchor and their own removal.
-			if(!creative || MinestuckConfig.SERVER.entryCrater.get())
+			//Tile entities of the land that have had their block replaced
+			for(BlockPos tePos : new ArrayList<>(chunk.getBlockEntities().keySet()))
 			{
-				LOGGER.debug("Removing entities left in the crater...");
-				List<Entity> removalList = worldserver0.getEntities(player, entityTeleportBB);
-				
-				//We check if the old list contains the entity, because that means it was there before the entities were teleported and blocks removed.
-				// This can be caused by them being outside the Entry radius but still within the AABB,
-				// Or by the player being in creative mode, or having entryCrater disabled, etc.
-				// Ultimately, this means that the entity has already been taken care of as much as it needs to be, and it is inappropriate to remove the entity.
-				removalList.removeAll(list);
-				
-				iterator = removalList.iterator();
-				if(MinestuckConfig.SERVER.entryCrater.get())
+				if(!chunk.getBlockState(tePos).hasTileEntity())
+					destWorld.removeBlockEntity(tePos);
+			}
+			chunk.setUnsaved(true);
+			
+			if(System.nanoTime() >= endTime)
+				break;
+		}
+		
+		return columnIndex >= destColumns.size();
+	}
+	
+	/**
+	 * Replaces a section that is entirely covered by the area with a new section filled with the states to place.
+	 * The area is generally not aligned with the sections of the land, so the states are gathered from the captured sections rather than copying their palettes as they are.
+	 * @return false if the section has to be written block by block instead, which is the case if it contains bedrock that should be kept
+	 */
+	private boolean fillSection(Chunk chunk, int sectionY, Column[] chunkColumns, WorldLightManager lightEngine)
+	{
+		ChunkSection oldSection = chunk.getSections()[sectionY];
+		if(oldSection != Chunk.EMPTY_SECTION && oldSection.maybeHas(state -> state.getBlock() == Blocks.BEDROCK))
+			return false;
+		
+		ChunkSection section = new ChunkSection(sectionY << 4);
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+		for(Column column : chunkColumns)
+		{
+			int x = (column.x + xDiff) & 15, z = (column.z + zDiff) & 15;
+			for(int y = 0; y < 16; y++)
+			{
+				BlockState state = getStateToPlace(column, (sectionY << 4) + y - yDiff);
+				if(!state.isAir())
+					section.setBlockState(x, y, z, state, false);
+				else if(oldSection != Chunk.EMPTY_SECTION && !oldSection.getBlockState(x, y, z).isAir())
+					lightEngine.checkBlock(pos.set(column.x + xDiff, (sectionY << 4) + y, column.z + zDiff));
+			}
+		}
+		
+		chunk.getSections()[sectionY] = section.isEmpty() ? Chunk.EMPTY_SECTION : section;
+		return true;
+	}
+	
+	private static void writeBlock(IChunk chunk, BlockPos pos, BlockState state, WorldLightManager lightEngine)
+	{
+		if(pos.getY() < 0 || pos.getY() > 255)
+			return;
+		
+		ChunkSection section = chunk.getSections()[pos.getY() >> 4];
+		if(section == Chunk.EMPTY_SECTION)
+		{
+			if(state.isAir())
+				return;
+			section = getBlockStorage(chunk, pos.getY() >> 4);
+		}
+		
+		BlockState oldState = section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+		if(oldState.getBlock() == Blocks.BEDROCK)
+			return;
+		
+		section.setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state);
+		if(state.isAir() && !oldState.isAir())
+			lightEngine.checkBlock(pos);
+	}
+	
+	/**
+	 * Copies tile entities and moves the player and other entities into the land. Done in a single tick so that nothing can change in between.
+	 */
+	private void transfer()
+	{
+		for(BlockPos pos : tileEntityPositions)
+			copyTileEntity(pos);
+		
+		if(Teleport.teleportEntity(player, destWorld) == null)
+		{
+			abort("Entry failed. Unable to teleport you!");
+			return;
+		}
+		
+		LOGGER.debug("Teleporting entities...");
+		//The fudge here is to ensure that the AABB will always contain every entity meant to be moved.
+		// As entities outside the radius will be excluded from transport anyway, this is fine.
+		entityTeleportBB = player.getBoundingBox().inflate(artifactRange + 0.5);
+		List<Entity> list = sourceWorld.getEntities(player, entityTeleportBB);
+		Iterator<Entity> iterator = list.iterator();
+		while (iterator.hasNext())
+		{
+			Entity e = iterator.next();
+			if(origin.distSqr(e.getX(), e.getY(), e.getZ(), true) <= artifactRange*artifactRange)
+			{
+				if(MinestuckConfig.SERVER.entryCrater.get() || e instanceof PlayerEntity || !creative && e instanceof ItemEntity)
 				{
-					while (iterator.hasNext())
+					if(e instanceof PlayerEntity && ServerEditHandler.getData((PlayerEntity) e) != null)
+						ServerEditHandler.reset(ServerEditHandler.getData((PlayerEntity) e));
+					else
 					{
-						iterator.next().remove();
+						Teleport.teleportEntity(e, destWorld, e.getX() + xDiff, e.getY() + yDiff, e.getZ() + zDiff);
 					}
-				} else
+					//These entities should no longer be in the world, and this list is later used for entities that *should* remain.
+					iterator.remove();
+				}
+				else	//Copy instead of teleport
 				{
-					while (iterator.hasNext())
+					Entity newEntity = e.getType().create(destWorld);
+					if (newEntity != null)
 					{
-						Entity e = iterator.next();
-						if(e instanceof ItemEntity)
-							e.remove();
+						newEntity.restoreFrom(e);
+						newEntity.setPos(newEntity.getX() + xDiff, newEntity.getY() + yDiff, newEntity.getZ() + zDiff);
+						destWorld.addFreshEntity(newEntity);
 					}
 				}
 			}
+		}
+		remainingEntities = list;
+		transferGameTime = sourceWorld.getGameTime();
+		
+		LOGGER.debug("Removing original tile entities");
+		for(BlockPos pos : tileEntityPositions)
+			removeTileEntity(sourceWorld, pos, creative);	//Tile entities need special treatment
+		
+		player.teleportTo(player.getX() + xDiff, player.getY() + yDiff, player.getZ() + zDiff);
+		
+		LOGGER.debug("Placing gates...");
+		placeGates(destWorld);
+		
+		MSExtraData.get(destWorld).addPostEntryTask(new PostEntryTask(destWorld.dimension(), origin.getX() + xDiff, origin.getY() + yDiff, origin.getZ() + zDiff, artifactRange, (byte) 0));
+		
+		MSDimensions.getLandInfo(destWorld).setSpawn(MathHelper.floor(player.getY()));
+		
+		SkaianetHandler.get(destWorld).onEntry(identifier);
+	}
+	
+	private void copyTileEntity(BlockPos source)
+	{
+		BlockPos dest = source.offset(xDiff, yDiff, zDiff);
+		BlockState capturedState = getCapturedState(source.getX(), source.getY(), source.getZ());
+		TileEntity tileEntity = sourceWorld.getBlockEntity(source);
+		if(capturedState == null || tileEntity == null || dest.getY() < 0 || dest.getY() > 255 || source.getY() > topY)
+			return;
+		
+		//The state might have changed a bit since it was captured, such as a furnace that has been lit
+		BlockState state = sourceWorld.getBlockState(source);
+		Chunk chunkTo = destWorld.getChunkAt(dest);
+		if(state.getBlock() != capturedState.getBlock() || chunkTo.getBlockState(dest).getBlock() == Blocks.BEDROCK)
+			return;
+		writeBlock(chunkTo, dest, state, destWorld.getChunkSource().getLightEngine());
+		
+		CompoundNBT nbt = new CompoundNBT();
+		tileEntity.save(nbt);
+		nbt.putInt("x", dest.getX());
+		nbt.putInt("y", dest.getY());
+		nbt.putInt("z", dest.getZ());
+		TileEntity newTE = TileEntity.loadStatic(state, nbt);
+		if(newTE != null)
+			destWorld.setBlockEntity(dest, newTE);
+		else LOGGER.warn("Unable to create a new tile entity {} when teleporting blocks to the medium!", tileEntity.getType().getRegistryName());
+		
+		for(EntryBlockProcessing processing : blockProcessors)
+		{
+			processing.copyOver(sourceWorld, source, destWorld, dest, state, tileEntity, newTE);
+		}
+	}
+	
+	/**
+	 * Removes the blocks that were brought along from the overworld, if craters are enabled.
+	 */
+	private boolean removeOriginalBlocks(long endTime)
+	{
+		if(!MinestuckConfig.SERVER.entryCrater.get())
+			return true;
+		
+		while(columnIndex < columns.size())
+		{
+			Column first = columns.get(columnIndex);
+			for(; columnIndex < columns.size() && columns.get(columnIndex).isInSameChunk(first, 0, 0); columnIndex++)
+			{
+				Column column = columns.get(columnIndex);
+				for(int blockY = Math.min(topY, column.top); blockY >= column.bottom; blockY--)
+				{
+					BlockPos pos = new BlockPos(column.x, blockY, column.z);
+					BlockState state = sourceWorld.getBlockState(pos);
+					if(state.isAir() || state.getBlock() == Blocks.BEDROCK || !creative && isCommandBlock(state.getBlock()))
+						continue;
+					
+					//Nether portals are updated so that the rest of the portal breaks as well
+					if(state.getBlock() == Blocks.NETHER_PORTAL)
+						sourceWorld.setBlock(pos, Blocks.AIR.defaultBlockState(), Constants.BlockFlags.DEFAULT);
+					else
+						sourceWorld.setBlock(pos, Blocks.AIR.defaultBlockState(), Constants.BlockFlags.BLOCK_UPDATE);
+				}
+			}
 			
-			LOGGER.debug("Placing gates...");
-			placeGates(worldserver1);
-			
-			MSExtraData.get(worldserver1).addPostEntryTask(new PostEntryTask(worldserver1.dimension(), x + xDiff, y + yDiff, z + zDiff, artifactRange, (byte) 0));
+			if(System.nanoTime() >= endTime)
+				break;
+		}
+		
+		return columnIndex >= columns.size();
+	}
+	
+	/**
+	 * Removes entities that were generated in the process of teleporting entities and removing blocks.
+	 * This is usually caused by "anchored" blocks being updated between the removal of their anchor and their own removal.
+	 */
+	private void removeCraterEntities()
+	{
+		if(!creative || MinestuckConfig.SERVER.entryCrater.get())
+		{
+			LOGGER.debug("Removing entities left in the crater...");
+			List<Entity> removalList = sourceWorld.getEntities((Entity) null, entityTeleportBB);
 			
-			MSDimensions.getLandInfo(worldserver1).setSpawn(MathHelper.floor(player.getY()));
+			//We check if the old list contains the entity, because that means it was there before the entities were teleported and blocks removed.
+			// This can be caused by them being outside the Entry radius but still within the AABB,
+			// Or by the player being in creative mode, or having entryCrater disabled, etc.
+			// Ultimately, this means that the entity has already been taken care of as much as it needs to be, and it is inappropriate to remove the entity.
+			removalList.removeAll(remainingEntities);
 			
-			LOGGER.info("Entry finished");
+			//Entities that have ticked for longer than the time since the transfer were already there before the crater was removed
+			long ticksSinceTransfer = sourceWorld.getGameTime() - transferGameTime;
+			for(Entity e : removalList)
+			{
+				if(e instanceof PlayerEntity || e.tickCount > ticksSinceTransfer)
+					continue;
+				
+				if(MinestuckConfig.SERVER.entryCrater.get() || e instanceof ItemEntity)
+					e.remove();
+			}
 		}
 	}
 	
@@ -398,24 +880,9 @@ public class EntryProcess
 		return true;
 	}
 	
-	private static void copyBlockDirect(IWorld world, IChunk cSrc, IChunk cDst, int xSrc, int ySrc, int zSrc, int xDst, int yDst, int zDst)
+	private static boolean isCommandBlock(Block block)
 	{
-		BlockPos dest = new BlockPos(xDst, yDst, zDst);
-		ChunkSection blockStorageSrc = getBlockStorage(cSrc, ySrc >> 4);
-		ChunkSection blockStorageDst = getBlockStorage(cDst, yDst >> 4);
-		int y = yDst;
-		xSrc &= 15; ySrc &= 15; zSrc &= 15; xDst &= 15; yDst &= 15; zDst &= 15;
-		
-		boolean isEmpty = blockStorageDst.isEmpty();
-		BlockState state = blockStorageSrc.getBlockState(xSrc, ySrc, zSrc);
-		blockStorageDst.setBlockState(xDst, yDst, zDst, state);
-		if(isEmpty != blockStorageDst.isEmpty())
-			world.getChunkSource().getLightEngine().updateSectionStatus(dest, blockStorageDst.isEmpty());	//I assume this adds or removes a light storage section here depending on if it is needed (because a section with just air doesn't have to be regarded)
-		
-		cDst.getOrCreateHeightmapUnprimed(Heightmap.Type.MOTION_BLOCKING).update(xDst, y, zDst, state);
-		cDst.getOrCreateHeightmapUnprimed(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES).update(xDst, y, zDst, state);
-		cDst.getOrCreateHeightmapUnprimed(Heightmap.Type.OCEAN_FLOOR).update(xDst, y, zDst, state);
-		cDst.getOrCreateHeightmapUnprimed(Heightmap.Type.WORLD_SURFACE).update(xDst, y, zDst, state);
+		return block == Blocks.COMMAND_BLOCK || block == Blocks.CHAIN_COMMAND_BLOCK || block == Blocks.REPEATING_COMMAND_BLOCK;
 	}
 	
 	private static ChunkSection getBlockStorage(IChunk c, int y)
@@ -426,32 +893,6 @@ public class EntryProcess
 		return section;
 	}
 	
-	/**
-	 * Gives the Y-value of the highest non-air block within artifact range of the coordinates provided in the given world.
-	 */
-	private int getTopHeight(ServerWorld world, int x, int y, int z)
-	{
-		LOGGER.debug("Getting maxY..");
-		int maxY = y;
-		for(int blockX = x - artifactRange; blockX <= x + artifactRange; blockX++)
-		{
-			int zWidth = (int) Math.sqrt(artifactRange * artifactRange - (blockX - x) * (blockX - x));
-			for(int blockZ = z - zWidth; blockZ <= z + zWidth; blockZ++)
-			{
-				int height = (int) (Math.sqrt(artifactRange * artifactRange - (((blockX - x) * (blockX - x) + (blockZ - z) * (blockZ - z)) / 2F)));
-				for(int blockY = Math.min(255, y + height); blockY > maxY; blockY--)
-					if(!world.isEmptyBlock(new BlockPos(blockX, blockY, blockZ)))
-					{
-						maxY = blockY;
-						break;
-					}
-			}
-		}
-		
-		LOGGER.debug("maxY: {}", maxY);
-		return maxY;
-	}
-	
 	public static void placeGates(ServerWorld world)
 	{
 		placeGate(GateHandler.Type.GATE_1, new BlockPos(0, GateHandler.gateHeight1, 0), world);
@@ -470,61 +911,72 @@ public class EntryProcess
 			else world.setBlock(pos.offset((i % 3) - 1, 0, i/3 - 1), MSBlocks.GATE.defaultBlockState(), 0);
 	}
 	
-	private static class BlockMove
+	private enum Stage
 	{
-		private final Chunk chunkFrom;
-		private final BlockPos source;
-		private final BlockPos dest;
-		private final BlockState block;
-		private final boolean update;
+		CAPTURE,
+		WRITE,
+		TRANSFER,
+		REMOVE;
 		
-		BlockMove(Chunk c, BlockPos src, BlockPos dst, BlockState b, boolean u)
+		private boolean isBeforeTransfer()
 		{
-			chunkFrom = c;
-			source = src;
-			dest = dst;
-			block = b;
-			update = u;
+			return this == CAPTURE || this == WRITE || this == TRANSFER;
 		}
+	}
+	
+	private static class Column
+	{
+		private final int x, z;
+		private final int bottom, top;
 		
-		void copy(ServerWorld world, IChunk chunkTo)
+		private Column(int x, int z, int bottom, int top)
 		{
-			if(chunkTo.getBlockState(dest).getBlock() == Blocks.BEDROCK)
-			{
-				return;
-			}
-			
-			if(update)
-			{
-				chunkTo.setBlockState(dest, block, true);
-			} else if(block == Blocks.AIR.defaultBlockState())
-			{
-				world.setBlock(dest, block, 0);
-			} else
-			{
-				copyBlockDirect(world, chunkFrom, chunkTo, source.getX(), source.getY(), source.getZ(), dest.getX(), dest.getY(), dest.getZ());
-			}
-			
-			TileEntity tileEntity = chunkFrom.getBlockEntity(source, Chunk.CreateEntityType.CHECK);
-			TileEntity newTE = null;
-			if(tileEntity != null)
-			{
-				CompoundNBT nbt = new CompoundNBT();
-				tileEntity.save(nbt);
-				nbt.putInt("x", dest.getX());
-				nbt.putInt("y", dest.getY());
-				nbt.putInt("z", dest.getZ());
-				newTE = TileEntity.loadStatic(block, nbt);
-				if(newTE != null)
-					world.setBlockEntity(dest, newTE);
-				else LOGGER.warn("Unable to create a new tile entity {} when teleporting blocks to the medium!", tileEntity.getType().getRegistryName());
-				
-			}
-			
-			for(EntryBlockProcessing processing : blockProcessors)
+			this.x = x;
+			this.z = z;
+			this.bottom = bottom;
+			this.top = top;
+		}
+		
+		private boolean isInSameChunk(Column other, int xOffset, int zOffset)
+		{
+			return (x + xOffset) >> 4 == (other.x + xOffset) >> 4 && (z + zOffset) >> 4 == (other.z + zOffset) >> 4;
+		}
+	}
+	
+	/**
+	 * The captured blocks of a chunk section, stored as indices into a palette of the block states in the section.
+	 */
+	private static class CapturedSection
+	{
+		private final List<BlockState> palette = new ArrayList<>();
+		private final Map<BlockState, Integer> paletteIds = new HashMap<>();
+		/**
+		 * The palette index plus one for each position in the section, or 0 for positions that are not brought along.
+		 */
+		private final short[] states = new short[4096];
+		
+		private void set(int x, int y, int z, BlockState state)
+		{
+			Integer id = paletteIds.get(state);
+			if(id == null)
 			{
-				processing.copyOver((ServerWorld) chunkFrom.getLevel(), source, world, dest, block, tileEntity, newTE);
+				id = palette.size();
+				palette.add(state);
+				paletteIds.put(state, id);
 			}
+			states[index(x, y, z)] = (short) (id + 1);
+		}
+		
+		@Nullable
+		private BlockState get(int x, int y, int z)
+		{
+			int id = states[index(x, y, z)];
+			return id != 0 ? palette.get(id - 1) : null;
+		}
+		
+		private static int index(int x, int y, int z)
+		{
+			return (y & 15) << 8 | (z & 15) << 4 | x & 15;
 		}
 	}
 }
\ No newline at end of file
@@ -3,34 +3,45 @@ package com.mraof.minestuck.entry;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.util.Debug;
 import com.mraof.minestuck.util.MSNBTUtil;
-import net.minecraft.block.BlockState;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.lighting.WorldLightManager;
 import net.minecraft.world.server.ServerWorld;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Represents a task for updating blocks copied over into the entry.
  * To reduce time, and still reduce lightning and "floating" liquids,
  * this was created to handle such tasks during the ticks right after entry instead of during entry.
+ * The columns to update are ordered chunk by chunk, so that heightmaps can be recalculated once for each finished chunk,
+ * and the position of the next block to update is saved, so that each tick can continue right where the last one stopped.
  */
 public class PostEntryTask
 {
-	/**
-	 * The maximum amount of time (in milliseconds) to spend updating blocks,
-	 * before leaving the rest for the next game tick.
-	 */
-	private static final long MIN_TIME = 20;
+	private static final Set<Heightmap.Type> HEIGHTMAPS = EnumSet.of(Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE);
 	
 	private final RegistryKey<World> dimension;
 	private final int x, y, z;
 	private final int entrySize;
 	private final byte entryType;	//Used if we add more ways for entry to happen
-	private int index;
+	/**
+	 * The index of the column that is currently being updated, or -1 if the task is done.
+	 */
+	private int column;
+	/**
+	 * The next y-coordinate to update in the current column.
+	 */
+	private int blockY;
+	private List<Column> columns;
 	
 	public PostEntryTask(RegistryKey<World> dimension, int xCoord, int yCoord, int zCoord, int entrySize, byte entryType)
 	{
@@ -40,13 +51,19 @@ public class PostEntryTask
 		this.z = zCoord;
 		this.entrySize = entrySize;
 		this.entryType = entryType;
-		this.index = 0;
+		this.column = 0;
+		this.blockY = Integer.MIN_VALUE;
 	}
 	
 	public PostEntryTask(CompoundNBT nbt)
 	{
 		this(MSNBTUtil.tryReadDimensionType(nbt, "dimension"), nbt.getInt("x"), nbt.getInt("y"), nbt.getInt("z"), nbt.getInt("entrySize"), nbt.getByte("entryType"));
-		this.index = nbt.getInt("index");
+		if(nbt.contains("column"))
+		{
+			this.column = nbt.getInt("column");
+			this.blockY = nbt.getInt("block_y");
+		} else if(nbt.getInt("index") == -1)	//Tasks saved before the cursor was added only tell if they are done, and otherwise start over
+			setDone();
 		if(dimension == null)
 			Debug.warnf("Unable to load dimension type by name %s!", nbt.getString("dimension"));
 	}
@@ -60,7 +77,8 @@ public class PostEntryTask
 		nbt.putInt("z", z);
 		nbt.putInt("entrySize", entrySize);
 		nbt.putByte("entryType", entryType);
-		nbt.putInt("index", index);
+		nbt.putInt("column", column);
+		nbt.putInt("block_y", blockY);
 		
 		return nbt;
 	}
@@ -79,70 +97,99 @@ public class PostEntryTask
 			return true;
 		}
 		
-		int preIndex = index;
-		main:
+		if(entryType == 0)
 		{
-			if(entryType == 0)
+			List<Column> columns = getColumns();
+			long time = System.nanoTime() + MinestuckConfig.SERVER.postEntryTickBudget.get() * 1_000_000L;
+			int preColumn = column, updated = 0;
+			WorldLightManager lightEngine = world.getChunkSource().getLightEngine();
+			BlockPos.Mutable pos = new BlockPos.Mutable();
+			
+			while(column < columns.size())
 			{
-				long time = System.currentTimeMillis() + MIN_TIME;
-				int i = 0;
-				for(int blockX = x - entrySize; blockX <= x + entrySize; blockX++)
+				Column current = columns.get(column);
+				blockY = Math.max(blockY, current.bottom);
+				for(; blockY <= current.top; blockY++)
 				{
-					int zWidth = (int) Math.sqrt(entrySize * entrySize - (blockX - x) * (blockX - x));
-					for(int blockZ = z - zWidth; blockZ <= z + zWidth; blockZ++)
-					{
-						int height = (int) Math.sqrt(MinestuckConfig.SERVER.artifactRange.get() * MinestuckConfig.SERVER.artifactRange.get() - (((blockX - x) * (blockX - x) + (blockZ - z) * (blockZ - z)) / 2));
-						if(blockX == x - entrySize || blockX == x + entrySize || blockZ == z - zWidth || blockZ == z + zWidth)
-							for(int blockY = y - height; blockY <= Math.min(128, y + height); blockY++)
-								i = updateBlock(new BlockPos(blockX, blockY, blockZ), world, i, true);
-						else
-						{
-							i = updateBlock(new BlockPos(blockX, y - height, blockZ), world, i, true);
-							for(int blockY = y - height + 1; blockY < Math.min(128, y + height); blockY++)
-								i = updateBlock(new BlockPos(blockX, blockY, blockZ), world, i, false);
-							i = updateBlock(new BlockPos(blockX, Math.min(128, y + height), blockZ), world, i, true);
-						}
-						if(time <= System.currentTimeMillis())
-							break main;
-					}
+					pos.set(current.x, blockY, current.z);
+					if(current.isEdge || blockY == current.bottom || blockY == current.top)
+						world.updateNeighborsAt(pos, world.getBlockState(pos).getBlock());
+					lightEngine.checkBlock(pos);
+					updated++;
 				}
+				
+				column++;
+				blockY = Integer.MIN_VALUE;
+				if(column == columns.size() || !columns.get(column).isInSameChunk(current))
+					Heightmap.primeHeightmaps(world.getChunk(current.x >> 4, current.z >> 4), HEIGHTMAPS);
+				
+				if(time <= System.nanoTime())
+					break;
 			}
 			
-			Debug.infof("Completed entry block updates for dimension %s.", dimension.location());
-			setDone();
-			return true;
+			if(column < columns.size())
+			{
+				Debug.debugf("Updated %d blocks this tick.", updated);
+				return column != preColumn;
+			}
 		}
 		
-		Debug.debugf("Updated %d blocks this tick.", index - preIndex);
-		return index != preIndex;
+		Debug.infof("Completed entry block updates for dimension %s.", dimension.location());
+		setDone();
+		return true;
 	}
 	
 	public boolean isDone()
 	{
-		return index == -1;
+		return column == -1;
 	}
 	
 	private void setDone()
 	{
-		index = -1;
+		column = -1;
+		columns = null;
 	}
 	
-	private int updateBlock(BlockPos pos, ServerWorld world, int i, boolean blockUpdate)
+	private List<Column> getColumns()
 	{
-		if(i >= index)
+		if(columns == null)
+		{
+			int artifactRange = MinestuckConfig.SERVER.artifactRange.get();
+			List<Column> list = new ArrayList<>();
+			for(int blockX = x - entrySize; blockX <= x + entrySize; blockX++)
+			{
+				int zWidth = (int) Math.sqrt(entrySize * entrySize - (blockX - x) * (blockX - x));
+				for(int blockZ = z - zWidth; blockZ <= z + zWidth; blockZ++)
+				{
+					int height = (int) Math.sqrt(artifactRange * artifactRange - (((blockX - x) * (blockX - x) + (blockZ - z) * (blockZ - z)) / 2));
+					boolean isEdge = blockX == x - entrySize || blockX == x + entrySize || blockZ == z - zWidth || blockZ == z + zWidth;
+					list.add(new Column(blockX, blockZ, y - height, Math.min(128, y + height), isEdge));
+				}
+			}
+			list.sort(Comparator.<Column>comparingInt(c -> c.x >> 4).thenComparingInt(c -> c.z >> 4));
+			columns = list;
+		}
+		return columns;
+	}
+	
+	private static class Column
+	{
+		private final int x, z;
+		private final int bottom, top;
+		private final boolean isEdge;
+		
+		private Column(int x, int z, int bottom, int top, boolean isEdge)
+		{
+			this.x = x;
+			this.z = z;
+			this.bottom = bottom;
+			this.top = top;
+			this.isEdge = isEdge;
+		}
+		
+		private boolean isInSameChunk(Column other)
 		{
-			if(blockUpdate)
-				world.updateNeighborsAt(pos, world.getBlockState(pos).getBlock());
-			world.getChunkSource().getLightEngine().checkBlock(pos);
-			IChunk chunk = world.getChunk(pos);
-			BlockState state = chunk.getBlockState(pos);
-			int x = pos.getX() & 15, y = pos.getY(), z = pos.getZ() & 15;
-			chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.MOTION_BLOCKING).update(x, y, z, state);
-			chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES).update(x, y, z, state);
-			chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.OCEAN_FLOOR).update(x, y, z, state);
-			chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.WORLD_SURFACE).update(x, y, z, state);
-			index++;
+			return x >> 4 == other.x >> 4 && z >> 4 == other.z >> 4;
 		}
-		return i + 1;
 	}
 }
\ No newline at end of file
@@ -8,12 +8,15 @@ import com.mraof.minestuck.client.gui.ColorSelectorScreen;
 import com.mraof.minestuck.entity.consort.EnumConsort;
 import com.mraof.minestuck.fluid.IMSFog;
 import com.mraof.minestuck.inventory.ConsortMerchantContainer;
+import com.mraof.minestuck.item.crafting.alchemy.GristCostRecipeLookup;
+import com.mraof.minestuck.item.crafting.alchemy.generator.GeneratedCostSync;
 import com.mraof.minestuck.world.storage.ClientPlayerData;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.entity.Entity;
 import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.RecipeManager;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.util.text.TextFormatting;
@@ -21,6 +24,8 @@ import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.IWorldReader;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.EntityViewRenderEvent;
+import net.minecraftforge.client.event.RecipesUpdatedEvent;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
@@ -79,6 +84,17 @@ public class ClientEventHandler
 		}
 	}
 	
+	@SubscribeEvent
+	public static void onRecipesUpdated(RecipesUpdatedEvent event)
+	{
+		GristCostRecipeLookup.invalidate(event.getRecipeManager());
+		RecipeManager recipeManager = event.getRecipeManager();
+		GeneratedCostSync.requestMissingCosts(recipeManager, Minecraft.getInstance()).thenAccept(loaded -> {
+			if(loaded)
+				MinecraftForge.EVENT_BUS.post(new RecipesUpdatedEvent(recipeManager));	//Lets jei and other users of the recipes pick up the stored costs
+		});
+	}
+	
 	/**
 	 *Used to change the density on of the Fog overlay
 	 */
@@ -4,8 +4,10 @@ import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.block.MSBlocks;
 import com.mraof.minestuck.entity.consort.ConsortDialogue;
+import com.mraof.minestuck.entity.item.GristEntity;
 import com.mraof.minestuck.entity.underling.UnderlingEntity;
 import com.mraof.minestuck.entry.EntryEvent;
+import com.mraof.minestuck.entry.EntryProcess;
 import com.mraof.minestuck.inventory.captchalogue.HashMapModus;
 import com.mraof.minestuck.inventory.captchalogue.Modus;
 import com.mraof.minestuck.item.MSItems;
@@ -35,16 +37,19 @@ import net.minecraft.util.Hand;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvents;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.ServerChatEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.item.ItemExpireEvent;
+import net.minecraftforge.event.entity.living.LivingAttackEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.event.entity.player.CriticalHitEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.UseHoeEvent;
 import net.minecraftforge.event.furnace.FurnaceFuelBurnTimeEvent;
+import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -76,6 +81,7 @@ public class ServerEventHandler
 		IdentifierHandler.clear();
 		SkaianetHandler.clear();
 		MSDimensions.clear();
+		EntryProcess.clear();
 	}
 	
 	@SubscribeEvent
@@ -94,6 +100,7 @@ public class ServerEventHandler
 				}
 			}
 			
+			EntryProcess.tickProcesses();
 			MSExtraData.get(server).executeEntryTasks(server);
 			
 			if(MinestuckConfig.SERVER.hardMode.get())
@@ -101,6 +108,34 @@ public class ServerEventHandler
 		}
 	}
 	
+	@SubscribeEvent
+	public static void onWorldTick(TickEvent.WorldTickEvent event)
+	{
+		if(event.phase == TickEvent.Phase.END && event.world instanceof ServerWorld)
+			GristEntity.mergeNearby((ServerWorld) event.world);
+	}
+	
+	@SubscribeEvent
+	public static void onBlockBreak(BlockEvent.BreakEvent event)
+	{
+		if(EntryProcess.isMovingBlock(event.getWorld(), event.getPos()))
+			event.setCanceled(true);
+	}
+	
+	@SubscribeEvent
+	public static void onBlockPlace(BlockEvent.EntityPlaceEvent event)
+	{
+		if(EntryProcess.isMovingBlock(event.getWorld(), event.getPos()))
+			event.setCanceled(true);
+	}
+	
+	@SubscribeEvent
+	public static void onEntityAttacked(LivingAttackEvent event)
+	{
+		if(EntryProcess.isEntering(event.getEntityLiving()))
+			event.setCanceled(true);
+	}
+	
 	@SubscribeEvent(priority=EventPriority.LOWEST, receiveCanceled=false)
 	public static void onEntityDeath(LivingDeathEvent event)
 	{
@@ -318,8 +318,9 @@ public class CaptchaDeckHandler
 			setModus(player, null);
 		} else modus.initModus(null, player, null, size);
 		
-		ModusDataPacket packet = ModusDataPacket.create(writeToNBT(getModus(player)));
-		MSPacketHandler.sendToPlayer(packet, player);
+		if(getModus(player) != null)
+			getModus(player).sendAll(player);
+		else MSPacketHandler.sendToPlayer(ModusDataPacket.create(null), player);
 	}
 	
 	public static CompoundNBT writeToNBT(Modus modus)
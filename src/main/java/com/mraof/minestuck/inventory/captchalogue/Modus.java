@@ -19,6 +19,11 @@ public abstract class Modus
 	private final ModusType<?> type;
 	public final LogicalSide side;
 	private boolean needResend;
+	private boolean needSave;
+	/**
+	 * The modus data that was last sent to the player, which changes are sent relative to.
+	 */
+	private CompoundNBT lastSentNBT;
 	
 	public Modus(ModusType<?> type, PlayerSavedData savedData, LogicalSide side)
 	{
@@ -84,18 +89,46 @@ public abstract class Modus
 		if(savedData != null)
 			savedData.setDirty();
 		needResend = true;
+		needSave = true;
+	}
+	
+	/**
+	 * Used by {@link PlayerSavedData} to find out which player's data needs to be saved, since the modus doesn't know what player it belongs to.
+	 */
+	public final boolean hasUnsavedChanges()
+	{
+		return needSave;
+	}
+	
+	public final void markSaved()
+	{
+		needSave = false;
 	}
 	
 	public final void checkAndResend(ServerPlayerEntity player)
 	{
 		if(needResend)
 		{
-			ModusDataPacket packet = ModusDataPacket.create(CaptchaDeckHandler.writeToNBT(this));
-			MSPacketHandler.sendToPlayer(packet, player);
+			CompoundNBT nbt = CaptchaDeckHandler.writeToNBT(this);
+			ModusDataPacket packet = ModusDataPacket.createChanges(lastSentNBT, nbt);
+			if(packet.hasChanges())
+				MSPacketHandler.sendToPlayer(packet, player);
+			lastSentNBT = nbt;
 			needResend = false;
 		}
 	}
 	
+	/**
+	 * Sends all modus data to the player, such as when logging in. Later updates are sent as changes to this data.
+	 */
+	public final void sendAll(ServerPlayerEntity player)
+	{
+		CompoundNBT nbt = CaptchaDeckHandler.writeToNBT(this);
+		MSPacketHandler.sendToPlayer(ModusDataPacket.create(nbt), player);
+		lastSentNBT = nbt;
+		needResend = false;
+	}
+	
 	protected MinecraftServer getServer()
 	{
 		return savedData != null ? savedData.mcServer : null;
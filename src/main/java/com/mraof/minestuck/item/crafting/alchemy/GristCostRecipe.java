@@ -7,7 +7,6 @@ import com.mraof.minestuck.item.crafting.alchemy.generator.GenerationContext;
 import com.mraof.minestuck.item.crafting.alchemy.generator.GristCostResult;
 import com.mraof.minestuck.jei.JeiGristCost;
 import net.minecraft.inventory.IInventory;
-import net.minecraft.inventory.Inventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.*;
@@ -19,10 +18,7 @@ import net.minecraft.world.World;
 import net.minecraftforge.registries.ForgeRegistryEntry;
 
 import javax.annotation.Nullable;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.BiConsumer;
 
 public abstract class GristCostRecipe implements IRecipe<IInventory>
@@ -40,7 +36,7 @@ public abstract class GristCostRecipe implements IRecipe<IInventory>
 	
 	public static Optional<GristCostRecipe> findRecipeForItem(ItemStack input, World world, RecipeManager recipeManager)
 	{
-		return recipeManager.getRecipesFor(MSRecipeTypes.GRIST_COST_TYPE, new Inventory(input), world).stream().max(Comparator.comparingInt(GristCostRecipe::getPriority));
+		return GristCostRecipeLookup.findRecipeForItem(input, world, recipeManager);
 	}
 	
 	public final ResourceLocation id;
@@ -110,6 +106,22 @@ public abstract class GristCostRecipe implements IRecipe<IInventory>
 		else return priority;
 	}
 	
+	/**
+	 * Returns the items that this recipe can match, or null if the recipe can't be matched by item alone (such as when the ingredient checks nbt).
+	 * Used by {@link GristCostRecipeLookup} to index recipes by item. Recipes returned for an item are still checked with {@link #matches}.
+	 */
+	@Nullable
+	public Collection<Item> getMatchingItems()
+	{
+		if(ingredient == null || ingredient.isEmpty() || !ingredient.isSimple())
+			return null;
+		
+		Set<Item> items = new HashSet<>();
+		for(ItemStack stack : ingredient.getItems())
+			items.add(stack.getItem());
+		return items;
+	}
+	
 	public abstract GristSet getGristCost(ItemStack input, GristType wildcardType, boolean shouldRoundDown, @Nullable World world);
 	
 	public boolean canPickWildcard()
@@ -133,6 +145,12 @@ public abstract class GristCostRecipe implements IRecipe<IInventory>
 				return new GristCostResult(getGristCost(new ItemStack(item), GristTypes.BUILD.get(), false, null));
 			else return null;
 		}
+		
+		@Override
+		public Collection<Item> getDependencies(Item item)
+		{
+			return Collections.emptyList();
+		}
 	}
 	
 	public List<JeiGristCost> getJeiCosts(World world)
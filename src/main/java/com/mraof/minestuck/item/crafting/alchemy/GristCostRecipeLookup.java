@@ -0,0 +1,135 @@
+package com.mraof.minestuck.item.crafting.alchemy;
+
+import com.mraof.minestuck.Minestuck;
+import com.mraof.minestuck.item.crafting.MSRecipeTypes;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.RecipeManager;
+import net.minecraft.world.World;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per recipe manager index of item -> grist cost recipes ranked by priority.
+ * Recipes that can be matched by item alone are looked up with a single hash lookup,
+ * while the remaining ones (such as nbt-sensitive ingredients) are still tested against every input.
+ * The index is built lazily on the first lookup and thrown away when the recipes are reloaded.
+ */
+@Mod.EventBusSubscriber(modid = Minestuck.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class GristCostRecipeLookup
+{
+	private static final Map<RecipeManager, GristCostRecipeLookup> LOOKUPS = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	private static final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+	
+	private final Map<Item, List<Entry>> recipesByItem = new HashMap<>();
+	private final List<Entry> unindexedRecipes = new ArrayList<>();
+	
+	private GristCostRecipeLookup(RecipeManager recipeManager)
+	{
+		List<GristCostRecipe> recipes = recipeManager.getAllRecipesFor(MSRecipeTypes.GRIST_COST_TYPE);
+		for(int i = 0; i < recipes.size(); i++)
+		{
+			GristCostRecipe recipe = recipes.get(i);
+			Entry entry = new Entry(recipe, recipe.getPriority(), i);
+			Collection<Item> items = recipe.getMatchingItems();
+			if(items != null)
+			{
+				for(Item item : items)
+					recipesByItem.computeIfAbsent(item, item1 -> new ArrayList<>()).add(entry);
+			} else unindexedRecipes.add(entry);
+		}
+		
+		for(List<Entry> entries : recipesByItem.values())
+			entries.sort(Entry.ORDER);
+		unindexedRecipes.sort(Entry.ORDER);
+	}
+	
+	static Optional<GristCostRecipe> findRecipeForItem(ItemStack input, World world, RecipeManager recipeManager)
+	{
+		GristCostRecipeLookup lookup = LOOKUPS.computeIfAbsent(recipeManager, GristCostRecipeLookup::new);
+		return Optional.ofNullable(lookup.find(input, world));
+	}
+	
+	private GristCostRecipe find(ItemStack input, World world)
+	{
+		Inventory inventory = new Inventory(input);
+		
+		Entry best = null;
+		List<Entry> indexed = recipesByItem.get(input.getItem());
+		if(indexed != null)
+		{
+			hits.incrementAndGet();
+			best = firstMatch(indexed, inventory, world);
+		} else misses.incrementAndGet();
+		
+		Entry unindexed = firstMatch(unindexedRecipes, inventory, world);
+		if(unindexed != null && (best == null || Entry.ORDER.compare(unindexed, best) < 0))
+			best = unindexed;
+		
+		return best != null ? best.recipe : null;
+	}
+	
+	private static Entry firstMatch(List<Entry> entries, Inventory inventory, World world)
+	{
+		for(Entry entry : entries)
+		{
+			if(entry.recipe.matches(inventory, world))
+				return entry;
+		}
+		return null;
+	}
+	
+	/**
+	 * @return the number of lookups that were answered through the item index
+	 */
+	public static long getHits()
+	{
+		return hits.get();
+	}
+	
+	/**
+	 * @return the number of lookups for items that had no indexed recipes
+	 */
+	public static long getMisses()
+	{
+		return misses.get();
+	}
+	
+	/**
+	 * Discards the index for the given recipe manager so that it is rebuilt on the next lookup.
+	 * The client keeps its recipe manager between recipe syncs, so this needs to be called whenever recipes are updated.
+	 */
+	public static void invalidate(RecipeManager recipeManager)
+	{
+		LOOKUPS.remove(recipeManager);
+	}
+	
+	@SubscribeEvent
+	public static void onResourceReload(AddReloadListenerEvent event)
+	{
+		invalidate(event.getDataPackRegistries().getRecipeManager());
+	}
+	
+	private static class Entry
+	{
+		//Highest priority first, and otherwise in the same order as the recipe manager would return them
+		private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> -entry.priority).thenComparingInt(entry -> entry.ordinal);
+		
+		private final GristCostRecipe recipe;
+		private final int priority;
+		private final int ordinal;
+		
+		private Entry(GristCostRecipe recipe, int priority, int ordinal)
+		{
+			this.recipe = recipe;
+			this.priority = priority;
+			this.ordinal = ordinal;
+		}
+	}
+}
\ No newline at end of file
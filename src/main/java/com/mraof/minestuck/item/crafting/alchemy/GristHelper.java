@@ -3,6 +3,7 @@ package com.mraof.minestuck.item.crafting.alchemy;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.computer.editmode.EditData;
 import com.mraof.minestuck.computer.editmode.ServerEditHandler;
+import com.mraof.minestuck.entity.underling.UnderlingDamageRecord;
 import com.mraof.minestuck.entity.underling.UnderlingEntity;
 import com.mraof.minestuck.event.GristDropsEvent;
 import com.mraof.minestuck.player.IdentifierHandler;
@@ -19,7 +20,6 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.function.Supplier;
 
 public class GristHelper
@@ -65,7 +65,7 @@ public class GristHelper
 	/**
 	 * Returns a GristSet representing the drops from an underling, given the underling's type and a static loot multiplier.
 	 */
-	public static GristSet generateUnderlingGristDrops(UnderlingEntity entity, Map<PlayerIdentifier, Double> damageMap, double multiplier)
+	public static GristSet generateUnderlingGristDrops(UnderlingEntity entity, UnderlingDamageRecord damageRecord, double multiplier)
 	{
 		Random random = entity.getRandom();
 		GristType primary = entity.getGristType();
@@ -76,7 +76,7 @@ public class GristHelper
 		set.addGrist(primary, (int) (1 * multiplier + random.nextDouble() * 9 * multiplier));
 		set.addGrist(secondary, (int) (0.5 * multiplier + random.nextDouble() * 4 * multiplier));
 		
-		GristDropsEvent event = new GristDropsEvent(entity, damageMap, set, primary, secondary, multiplier);
+		GristDropsEvent event = new GristDropsEvent(entity, damageRecord.asMap(), set, primary, secondary, multiplier);
 		if(MinecraftForge.EVENT_BUS.post(event))
 			return null;
 		
@@ -113,20 +113,7 @@ public class GristHelper
 		{
 			return false;
 		}
-		Map<GristType, Long> reqs = cost.getMap();
-		if(reqs != null)
-		{
-			for(Entry<GristType, Long> pairs : reqs.entrySet())
-			{
-				GristType type = pairs.getKey();
-				long need = pairs.getValue();
-				long have = base.getGrist(type);
-				
-				if(need > have) return false;
-			}
-			return true;
-		}
-		return false;
+		return base.hasAtLeast(cost);
 	}
 	
 	/**
@@ -134,7 +121,13 @@ public class GristHelper
 	 */
 	public static void decrease(World world, PlayerIdentifier player, GristSet set)
 	{
-		increase(world, player, set.copy().scale(-1));
+		Objects.requireNonNull(world);
+		Objects.requireNonNull(player);
+		Objects.requireNonNull(set);
+		PlayerData data = PlayerSavedData.getData(player, world);
+		NonNegativeGristSet newCache = new NonNegativeGristSet(data.getGristCache());
+		newCache.subtractGrist(set);
+		data.setGristCache(newCache);
 	}
 	
 	public static void increase(World world, PlayerIdentifier player, GristSet set)
@@ -152,13 +145,7 @@ public class GristHelper
 	{
 		if(MinestuckConfig.SERVER.showGristChanges.get())
 		{
-			Map<GristType, Long> reqs = set.getMap();
-			for(Entry<GristType, Long> pairs : reqs.entrySet())
-			{
-				ITextComponent type = pairs.getKey().getDisplayName();
-				long difference = pairs.getValue();
-				sendGristMessage(server, player, new TranslationTextComponent("You gained %s %s grist.", difference, type));
-			}
+			set.forEach((type, difference) -> sendGristMessage(server, player, new TranslationTextComponent("You gained %s %s grist.", difference, type.getDisplayName())));
 		}
 	}
 	
@@ -174,11 +161,9 @@ public class GristHelper
 			if(ed == null)
 				return;
 			
-			Map<GristType, Long> reqs = set.getMap();
-			for(Entry<GristType, Long> pairs : reqs.entrySet())
+			set.forEach((gristType, difference) ->
 			{
-				ITextComponent type = pairs.getKey().getDisplayName();
-				long difference = pairs.getValue();
+				ITextComponent type = gristType.getDisplayName();
 				if(increase)
 				{
 					sendGristMessage(server, IdentifierHandler.encode(ed.getEditor()), new TranslationTextComponent("You have refunded %s of %s's %s grist.", difference, player.getUsername(), type));
@@ -186,7 +171,7 @@ public class GristHelper
 				{
 					sendGristMessage(server, IdentifierHandler.encode(ed.getEditor()), new TranslationTextComponent("You have spent %s of %s's %s grist.", difference, player.getUsername(), type));
 				}
-			}
+			});
 		}
 	}
 	
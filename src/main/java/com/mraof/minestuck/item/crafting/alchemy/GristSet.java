@@ -17,29 +17,46 @@ import net.minecraft.world.World;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
+/**
+ * A set of grist type -> amount pairs.
+ * Amounts are stored in a dense array indexed by {@link GristType#getIndex()}, and always iterated in the natural order of the grist types.
+ */
 public class GristSet
 {
 	public static final String MISSING_MESSAGE = "grist.missing";
 	public static final String GRIST_COMMA = "grist.comma";
 	
-	public static final GristSet EMPTY = new GristSet(Collections.emptyMap());
-
-	private final Map<GristType, Long> gristTypes;
-
+	private static final long[] NO_AMOUNTS = new long[0];
+	private static final boolean[] NO_TYPES = new boolean[0];
+	
+	public static final GristSet EMPTY = new GristSet(new GristSet(), true);
+	
+	private final boolean immutable;
+	private long[] amounts = NO_AMOUNTS;
+	private boolean[] present = NO_TYPES;	//Separate from the amounts since a type may be present with an amount of 0
+	private int size;
+	private double value = Double.NaN;	//Cached value estimate, NaN when it needs to be recalculated
+	
 	/**
 	 * Creates a blank set of grist values, used in setting up the Grist Registry.
 	 */
 	public GristSet()
 	{
-		this(new TreeMap<>());
+		immutable = false;
 	}
 	
-	protected GristSet(Map<GristType, Long> map)
+	protected GristSet(GristSet set, boolean immutable)
 	{
-		this.gristTypes = map;
+		this.immutable = immutable;
+		amounts = Arrays.copyOf(set.amounts, set.amounts.length);
+		present = Arrays.copyOf(set.present, set.present.length);
+		size = set.size;
+		if(immutable)
+			value = set.getValue();	//Calculate the value up front so that immutable sets can be shared between threads safely
+		else value = set.value;
 	}
 	
 	public GristSet(Supplier<GristType> type, long amount)
@@ -53,7 +70,7 @@ public class GristSet
 	public GristSet(GristType type, long amount)
 	{
 		this();
-		this.gristTypes.put(type, amount);
+		put(type.getIndex(), amount);
 	}
 	
 	public GristSet(Supplier<GristType>[] type, long[] amount)
@@ -62,7 +79,7 @@ public class GristSet
 		
 		for (int i = 0; i < type.length; i++)
 		{
-			this.gristTypes.put(type[i].get(), amount[i]);
+			put(type[i].get().getIndex(), amount[i]);
 		}
 	}
 	
@@ -72,26 +89,25 @@ public class GristSet
 	public GristSet(GristType[] type, long[] amount)
 	{
 		this();
-
+		
 		for (int i = 0; i < type.length; i++)
 		{
-			this.gristTypes.put(type[i], amount[i]);
+			put(type[i].getIndex(), amount[i]);
 		}
 	}
-
+	
 	public GristSet(GristAmount... grist)
 	{
 		this();
 		for (GristAmount amount : grist)
 		{
-			this.gristTypes.put(amount.getType(), amount.getAmount());
+			put(amount.getType().getIndex(), amount.getAmount());
 		}
 	}
 	
 	public GristSet(GristSet set)
 	{
-		this();
-		gristTypes.putAll(set.gristTypes);
+		this(set, false);
 	}
 	
 	public ImmutableGristSet asImmutable()
@@ -104,7 +120,8 @@ public class GristSet
 	 */
 	public long getGrist(GristType type)
 	{
-		return this.gristTypes.getOrDefault(type, 0L);
+		int index = type.getIndex();
+		return index < amounts.length ? amounts[index] : 0;
 	}
 	
 	public long getGrist(Supplier<GristType> type)
@@ -117,10 +134,17 @@ public class GristSet
 	 */
 	public double getValue()
 	{
-		double sum = 0;
-		for(GristAmount amount : getAmounts())
-			sum += amount.getValue();
-		return sum;
+		if(Double.isNaN(value))
+		{
+			double sum = 0;
+			for(int index : GristTypeIndex.sortedIndices())
+			{
+				if(has(index))
+					sum += GristTypeIndex.get(index).getValue()*amounts[index];
+			}
+			value = sum;
+		}
+		return value;
 	}
 	
 	/**
@@ -128,28 +152,31 @@ public class GristSet
 	 */
 	public GristSet setGrist(GristType type, long amount)
 	{
+		checkMutable();
 		if(type != null)
 		{
 			if (amount == 0)
 			{
-				this.gristTypes.remove(type);
+				remove(type.getIndex());
 			}
 			else
 			{
-				gristTypes.put(type, amount);
+				put(type.getIndex(), amount);
 			}
 		}
 		return this;
 	}
-
+	
 	/**
 	 * Adds an amount of grist to a GristSet, given a grist type and amount.
 	 */
 	public GristSet addGrist(GristType type, long amount)
 	{
+		checkMutable();
 		if(type != null)
 		{
-			this.gristTypes.compute(type, (key, value) -> value == null ? amount : value + amount);
+			int index = type.getIndex();
+			put(index, has(index) ? amounts[index] + amount : amount);
 		}
 		return this;
 	}
@@ -158,41 +185,62 @@ public class GristSet
 	{
 		return addGrist(type.get(), amount);
 	}
-
-	/**
-	 * Returns a Hashtable with grist->amount pairs.
-	 */
-	protected Map<GristType, Long> getMap()
-	{
-		return this.gristTypes;
-	}
 	
 	public boolean hasType(GristType type)
 	{
-		return gristTypes.containsKey(type);
+		return has(type.getIndex());
 	}
 	
 	/**
 	 * Returns a ArrayList containing GristAmount objects representing the set.
+	 * Prefer {@link #forEach} when the amounts are only iterated over.
 	 */
 	public List<GristAmount> getAmounts()
 	{
-		return this.gristTypes.entrySet().stream().map((entry) -> new GristAmount(entry.getKey(), entry.getValue())).collect(Collectors.toList());
+		List<GristAmount> list = new ArrayList<>(size);
+		forEach((type, amount) -> list.add(new GristAmount(type, amount)));
+		return list;
 	}
-
+	
+	/**
+	 * Iterates through all grist type/amount pairs in this set without creating any intermediate objects.
+	 */
+	public void forEach(ObjLongConsumer<GristType> consumer)
+	{
+		for(int index : GristTypeIndex.sortedIndices())
+		{
+			if(has(index))
+				consumer.accept(GristTypeIndex.get(index), amounts[index]);
+		}
+	}
+	
 	/**
 	 * Adds an amount of grist to a GristSet, given another set of grist.
 	 */
 	public GristSet addGrist(GristSet set)
 	{
-		for (GristAmount grist : set.getAmounts())
+		for(int index : GristTypeIndex.sortedIndices())
 		{
-			this.addGrist(grist);
+			if(set.has(index))
+				this.addGrist(GristTypeIndex.get(index), set.amounts[index]);
 		}
 		return this;
-
+	
 	}
-
+	
+	/**
+	 * Subtracts the grist of another set from this set, equivalent to adding the other set scaled by -1.
+	 */
+	public GristSet subtractGrist(GristSet set)
+	{
+		for(int index : GristTypeIndex.sortedIndices())
+		{
+			if(set.has(index))
+				this.addGrist(GristTypeIndex.get(index), -set.amounts[index]);
+		}
+		return this;
+	}
+	
 	/**
 	 * Adds an amount of grist to a GristSet, given a grist type and amount.
 	 */
@@ -212,13 +260,15 @@ public class GristSet
 	 */
 	public GristSet scale(float scale, boolean roundDown)
 	{
-		this.gristTypes.forEach((type, amount) -> {
-			if (amount != 0)
-			{
-				this.gristTypes.put(type, roundDown ? (long) (amount * scale) : roundToNonZero(amount * scale));
-			}
-		});
-
+		checkMutable();
+		for(int index = 0; index < amounts.length; index++)
+		{
+			long amount = amounts[index];
+			if(amount != 0)
+				amounts[index] = roundDown ? (long) (amount * scale) : roundToNonZero(amount * scale);
+		}
+		value = Double.NaN;
+		
 		return this;
 	}
 	
@@ -228,30 +278,84 @@ public class GristSet
 			return Math.min(-1, Math.round(value));
 		else return Math.max(1, Math.round(value));
 	}
-
+	
 	/**
 	 * Checks if this grist set is empty.
 	 */
 	public boolean isEmpty()
 	{
-		return this.gristTypes.isEmpty();
+		return size == 0;
 	}
-
+	
+	/**
+	 * Checks that this set has at least as much grist as the given set for every grist type in the given set.
+	 */
+	boolean hasAtLeast(GristSet set)
+	{
+		for(int index = 0; index < set.amounts.length; index++)
+		{
+			if(set.has(index) && set.amounts[index] > (index < amounts.length ? amounts[index] : 0))
+				return false;
+		}
+		return true;
+	}
+	
+	private boolean has(int index)
+	{
+		return index < present.length && present[index];
+	}
+	
+	private void put(int index, long amount)
+	{
+		if(index >= amounts.length)
+		{
+			int length = Math.max(index + 1, GristTypeIndex.sortedIndices().length);
+			amounts = Arrays.copyOf(amounts, length);
+			present = Arrays.copyOf(present, length);
+		}
+		if(!present[index])
+		{
+			present[index] = true;
+			size++;
+		}
+		amounts[index] = amount;
+		value = Double.NaN;
+	}
+	
+	private void remove(int index)
+	{
+		if(has(index))
+		{
+			present[index] = false;
+			amounts[index] = 0;
+			size--;
+			value = Double.NaN;
+		}
+	}
+	
+	private void checkMutable()
+	{
+		if(immutable)
+			throw new UnsupportedOperationException("Can't modify an immutable grist set");
+	}
+	
 	@Override
 	public String toString()
 	{
 		StringBuilder build = new StringBuilder();
 		build.append("gristSet:[");
-
+		
 		boolean first = true;
-		for (Map.Entry<GristType, Long> entry : gristTypes.entrySet())
+		for(int index : GristTypeIndex.sortedIndices())
 		{
+			if(!has(index))
+				continue;
 			if (!first)
 				build.append(',');
-			build.append(entry.getKey().getRegistryName()).append("=").append(entry.getValue());
+			build.append(GristTypeIndex.get(index).getRegistryName()).append("=").append(amounts[index]);
 			first = false;
 		}
-
+		
 		build.append(']');
 		return build.toString();
 	}
@@ -259,11 +363,14 @@ public class GristSet
 	public ITextComponent asTextComponent()
 	{
 		ITextComponent component = null;
-		for(GristAmount grist : getAmounts())
+		for(int index : GristTypeIndex.sortedIndices())
 		{
+			if(!has(index))
+				continue;
+			ITextComponent grist = new GristAmount(GristTypeIndex.get(index), amounts[index]).asTextComponent();
 			if(component == null)
-				component = grist.asTextComponent();
-			else component = new TranslationTextComponent(GRIST_COMMA, component, grist.asTextComponent());
+				component = grist;
+			else component = new TranslationTextComponent(GRIST_COMMA, component, grist);
 		}
 		if(component != null)
 			return component;
@@ -278,39 +385,34 @@ public class GristSet
 	
 	public GristSet copy()
 	{
-		return new GristSet(new TreeMap<>(gristTypes));
+		return new GristSet(this, false);
 	}
 	
 	public void spawnGristEntities(World world, double x, double y, double z, Random rand, Consumer<GristEntity> postProcessor)
 	{
-		for(GristAmount amount : getAmounts())
-		{
-			long countLeft = amount.getAmount();
+		forEach((type, totalAmount) -> {
+			long countLeft = totalAmount;
 			for(int i = 0; i < 10 && countLeft > 0; i++)
 			{
-				long spawnedCount = countLeft <= amount.getAmount()/10 || i == 9 ? countLeft : Math.min(countLeft, (long) world.random.nextDouble()*countLeft + 1);
-				GristAmount spawnedAmount = new GristAmount(amount.getType(), spawnedCount);
+				long spawnedCount = countLeft <= totalAmount/10 || i == 9 ? countLeft : Math.min(countLeft, (long) world.random.nextDouble()*countLeft + 1);
+				GristAmount spawnedAmount = new GristAmount(type, spawnedCount);
 				GristEntity entity = new GristEntity(world, x, y, z, spawnedAmount);
 				postProcessor.accept(entity);
-				world.addFreshEntity(entity);
+				GristEntity.spawn(world, entity);
 				countLeft -= spawnedCount;
 			}
-		}
+		});
 	}
 	
 	public JsonElement serialize()
 	{
 		JsonObject json = new JsonObject();
-		for(Map.Entry<GristType, Long> entry : gristTypes.entrySet())
-		{
-			ResourceLocation id = entry.getKey().getRegistryName();
+		forEach((type, amount) -> {
+			ResourceLocation id = type.getRegistryName();
 			if(id == null)
-			{
-				Debug.warnf("Found grist type without a registry name! (%s)", entry.getKey());
-				continue;
-			}
-			json.addProperty(id.toString(), entry.getValue());
-		}
+				Debug.warnf("Found grist type without a registry name! (%s)", type);
+			else json.addProperty(id.toString(), amount);
+		});
 		return json;
 	}
 	
@@ -332,24 +434,29 @@ public class GristSet
 	
 	public void write(PacketBuffer buffer)
 	{
-		List<GristAmount> amounts = getAmounts();
-		buffer.writeInt(amounts.size());
-		amounts.forEach(gristAmount -> gristAmount.write(buffer));
+		buffer.writeInt(size);
+		forEach((type, amount) -> {
+			buffer.writeRegistryId(type);
+			buffer.writeLong(amount);
+		});
 	}
 	
 	public static GristSet read(PacketBuffer buffer)
 	{
 		int size = buffer.readInt();
-		GristAmount[] amounts = new GristAmount[size];
+		GristSet set = new GristSet();
 		for(int i = 0; i < size; i++)
-			amounts[i] = GristAmount.read(buffer);
+		{
+			GristType type = buffer.readRegistryIdSafe(GristType.class);
+			set.put(type.getIndex(), buffer.readLong());
+		}
 		
-		return new GristSet(amounts);
+		return set;
 	}
 	
 	public ListNBT write(ListNBT list)
 	{
-		getAmounts().forEach(gristAmount -> list.add(gristAmount.write(new CompoundNBT(), null)));
+		forEach((type, amount) -> list.add(new GristAmount(type, amount).write(new CompoundNBT(), null)));
 		return list;
 	}
 	
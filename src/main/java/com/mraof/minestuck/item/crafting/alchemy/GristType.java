@@ -34,6 +34,7 @@ public class GristType extends ForgeRegistryEntry<GristType> implements Comparab
 	private final Set<SpawnCategory> spawnCategories;
 	private String translationKey;
 	private ResourceLocation icon;
+	volatile int index = -1;	//Assigned by GristTypeIndex
 	
 	public GristType(Properties properties)
 	{
@@ -92,6 +93,15 @@ public class GristType extends ForgeRegistryEntry<GristType> implements Comparab
 		return value;
 	}
 	
+	/**
+	 * @return the dense index used to look up this type in a {@link GristSet}
+	 */
+	int getIndex()
+	{
+		int index = this.index;
+		return index >= 0 ? index : GristTypeIndex.assign(this);
+	}
+	
 	public boolean isUnderlingType()
 	{
 		return underlingType;
@@ -0,0 +1,52 @@
+package com.mraof.minestuck.item.crafting.alchemy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Hands out dense indices to grist types for the array-backed {@link GristSet}.
+ * Indices are assigned on first use and stay the same for the rest of the session,
+ * unlike the forge registry ids, which can get remapped when loading a world or joining a server.
+ */
+final class GristTypeIndex
+{
+	private static volatile GristType[] types = new GristType[0];
+	private static volatile int[] sortedIndices = new int[0];
+	
+	private GristTypeIndex()
+	{}
+	
+	static synchronized int assign(GristType type)
+	{
+		if(type.index >= 0)
+			return type.index;
+		
+		int index = types.length;
+		GristType[] newTypes = Arrays.copyOf(types, index + 1);
+		newTypes[index] = type;
+		
+		//Grist sets are iterated in the natural order of grist types, which is also the order they are displayed in
+		Integer[] sorted = new Integer[newTypes.length];
+		for(int i = 0; i < sorted.length; i++)
+			sorted[i] = i;
+		Arrays.sort(sorted, Comparator.comparing((Integer i) -> newTypes[i]));
+		
+		types = newTypes;
+		sortedIndices = Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+		type.index = index;
+		return index;
+	}
+	
+	static GristType get(int index)
+	{
+		return types[index];
+	}
+	
+	/**
+	 * @return all assigned indices, ordered by the natural order of their grist types. Must not be modified.
+	 */
+	static int[] sortedIndices()
+	{
+		return sortedIndices;
+	}
+}
\ No newline at end of file
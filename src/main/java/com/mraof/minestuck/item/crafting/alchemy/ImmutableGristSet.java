@@ -2,29 +2,29 @@ package com.mraof.minestuck.item.crafting.alchemy;
 
 import com.google.common.collect.ImmutableMap;
 
-import java.util.Collections;
+import java.util.Map;
 import java.util.function.Supplier;
 
 public class ImmutableGristSet extends GristSet
 {
 	public ImmutableGristSet()
 	{
-		super(Collections.emptyMap());
+		super(new GristSet(), true);
 	}
 	
 	public ImmutableGristSet(GristSet set)
 	{
-		super(ImmutableMap.copyOf(set.getMap()));
+		super(set, true);
 	}
 	
 	public ImmutableGristSet(ImmutableMap.Builder<GristType, Long> builder)
 	{
-		super(builder.build());
+		super(fromMap(builder.build()), true);
 	}
 	
 	public ImmutableGristSet(GristType type, long amount)
 	{
-		super(ImmutableMap.of(type, amount));
+		super(new GristSet(type, amount), true);
 	}
 	
 	public ImmutableGristSet(Supplier<GristType> type, long amount)
@@ -32,6 +32,13 @@ public class ImmutableGristSet extends GristSet
 		this(type.get(), amount);
 	}
 	
+	private static GristSet fromMap(Map<GristType, Long> map)
+	{
+		GristSet set = new GristSet();
+		map.forEach(set::addGrist);
+		return set;
+	}
+	
 	@Override
 	public ImmutableGristSet asImmutable()
 	{
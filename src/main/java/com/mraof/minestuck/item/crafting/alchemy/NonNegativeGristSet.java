@@ -11,10 +11,11 @@ public class NonNegativeGristSet extends GristSet
 	
 	public NonNegativeGristSet(GristSet set)
 	{
-		for(GristAmount amount : set.getAmounts())
-			if(amount.getAmount() < 0)
-				throw new IllegalArgumentException("Can't create a non-negative grist set with negative "+amount.getType());
-			else addGrist(amount);
+		super(set, false);
+		forEach((type, amount) -> {
+			if(amount < 0)
+				throw new IllegalArgumentException("Can't create a non-negative grist set with negative "+type);
+		});
 	}
 	
 	@Override
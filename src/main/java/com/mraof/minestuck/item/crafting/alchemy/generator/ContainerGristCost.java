@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.mraof.minestuck.item.crafting.MSRecipeTypes;
 import com.mraof.minestuck.item.crafting.alchemy.GristSet;
 import com.mraof.minestuck.item.crafting.alchemy.ImmutableGristSet;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.IRecipeSerializer;
 import net.minecraft.item.crafting.Ingredient;
@@ -14,6 +15,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
 
 public class ContainerGristCost extends GeneratedGristCost
 {
@@ -58,6 +61,13 @@ public class ContainerGristCost extends GeneratedGristCost
 		return null;
 	}
 	
+	@Override
+	protected Collection<Item> getDependencies()
+	{
+		ItemStack container = ingredient.getItems().length > 0 ? ingredient.getItems()[0].getContainerItem() : ItemStack.EMPTY;
+		return container.isEmpty() ? Collections.emptyList() : Collections.singletonList(container.getItem());
+	}
+	
 	@Override
 	public IRecipeSerializer<?> getSerializer()
 	{
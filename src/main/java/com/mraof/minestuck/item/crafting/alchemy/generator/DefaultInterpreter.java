@@ -9,8 +9,7 @@ import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.Ingredient;
 import net.minecraftforge.registries.ObjectHolder;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 public class DefaultInterpreter implements RecipeInterpreter
 {
@@ -48,6 +47,21 @@ public class DefaultInterpreter implements RecipeInterpreter
 		return totalCost;
 	}
 	
+	@Override
+	public Collection<Item> getDependencies(IRecipe<?> recipe)
+	{
+		if(recipe.isSpecial())
+			return Collections.emptyList();
+		
+		Set<Item> dependencies = new HashSet<>();
+		for(Ingredient ingredient : recipe.getIngredients())
+		{
+			if(!GenerationContext.addIngredientDependencies(ingredient, true, dependencies))
+				return null;
+		}
+		return dependencies;
+	}
+	
 	@Override
 	public InterpreterSerializer<?> getSerializer()
 	{
@@ -0,0 +1,290 @@
+package com.mraof.minestuck.item.crafting.alchemy.generator;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import com.google.gson.JsonElement;
+import com.mraof.minestuck.Minestuck;
+import com.mraof.minestuck.item.crafting.alchemy.GristSet;
+import com.mraof.minestuck.item.crafting.alchemy.GristType;
+import com.mraof.minestuck.item.crafting.alchemy.GristTypes;
+import io.netty.buffer.Unpooled;
+import net.minecraft.item.Item;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.IRecipeSerializer;
+import net.minecraft.item.crafting.RecipeManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the costs generated by {@link RecipeGeneratedCostHandler} on disk, together with a fingerprint of everything that went into generating them.
+ * When the fingerprint matches on the next server start or reload, the stored costs can be used directly instead of generating them again.
+ * The cache is kept in the game directory rather than the world save, since data packs are loaded before the server and its world exist.
+ * The same format is used by clients to keep the cost tables received from servers, see {@link GeneratedCostSync}.
+ */
+final class GeneratedCostCache
+{
+	private static final Logger LOGGER = LogManager.getLogger();
+	
+	private static final int FORMAT_VERSION = 1;
+	private static final String FILE_NAME = "recipe_generated_grist_costs.bin";
+	private static final String SYNCED_DIRECTORY = "synced_grist_costs";
+	private static final int MAX_SYNCED_TABLES = 8;
+	private static final Object SYNCED_LOCK = new Object();
+	
+	private GeneratedCostCache()
+	{}
+	
+	private static Path getPath()
+	{
+		return FMLPaths.GAMEDIR.get().resolve(Minestuck.MOD_ID).resolve(FILE_NAME);
+	}
+	
+	private static Path getSyncedPath(long hash)
+	{
+		return FMLPaths.GAMEDIR.get().resolve(Minestuck.MOD_ID).resolve(SYNCED_DIRECTORY).resolve(String.format("%016x.bin", hash));
+	}
+	
+	/**
+	 * Creates a fingerprint out of the network form of all loaded recipes, which includes explicit grist costs and resolved tags,
+	 * together with the grist cost generation sources and the minestuck version.
+	 * @return the fingerprint, or null if some recipe could not be serialized
+	 */
+	@Nullable
+	static byte[] fingerprint(RecipeManager recipeManager, List<RecipeGeneratedCostHandler.SourceEntry> sources)
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e)
+		{
+			LOGGER.warn("Unable to fingerprint recipes for the grist cost cache", e);
+			return null;
+		}
+		
+		update(digest, FORMAT_VERSION + ";" + ModList.get().getModContainerById(Minestuck.MOD_ID).map(mod -> mod.getModInfo().getVersion().toString()).orElse(""));
+		
+		List<IRecipe<?>> recipes = new ArrayList<>(recipeManager.getRecipes());
+		recipes.sort(Comparator.comparing(recipe -> recipe.getId().toString()));
+		for(IRecipe<?> recipe : recipes)
+		{
+			if(recipe instanceof RecipeGeneratedGristCost)
+				continue;	//This carries the costs that are being generated
+			
+			PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+			try
+			{
+				buffer.writeResourceLocation(recipe.getId());
+				buffer.writeResourceLocation(Objects.requireNonNull(recipe.getSerializer().getRegistryName()));
+				writeRecipe(recipe, buffer);
+				byte[] bytes = new byte[buffer.readableBytes()];
+				buffer.readBytes(bytes);
+				digest.update(bytes);
+			} catch(Exception e)
+			{
+				LOGGER.warn("Unable to fingerprint recipe {} for the grist cost cache. Costs will be generated without the cache.", recipe.getId(), e);
+				return null;
+			} finally
+			{
+				buffer.release();
+			}
+		}
+		
+		for(RecipeGeneratedCostHandler.SourceEntry entry : sources)
+			update(digest, entry.source + "=" + writeInterpreter(entry.interpreter));
+		
+		return digest.digest();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T extends IRecipe<?>> void writeRecipe(T recipe, PacketBuffer buffer)
+	{
+		((IRecipeSerializer<T>) recipe.getSerializer()).toNetwork(buffer, recipe);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T extends RecipeInterpreter> JsonElement writeInterpreter(T interpreter)
+	{
+		return ((InterpreterSerializer<T>) interpreter.getSerializer()).write(interpreter);
+	}
+	
+	private static void update(MessageDigest digest, String str)
+	{
+		digest.update(str.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+	
+	/**
+	 * @return the stored costs if there are any with a matching fingerprint, and null otherwise
+	 */
+	@Nullable
+	static Map<Item, GristSet> load(byte[] fingerprint)
+	{
+		return load(getPath(), fingerprint);
+	}
+	
+	static void save(byte[] fingerprint, Map<Item, GristSet> costs)
+	{
+		save(getPath(), fingerprint, costs);
+	}
+	
+	/**
+	 * @return a cost table received from a server in an earlier session, or null if there is none stored with this hash
+	 */
+	@Nullable
+	static Map<Item, GristSet> loadSynced(long hash)
+	{
+		synchronized(SYNCED_LOCK)
+		{
+			return load(getSyncedPath(hash), Longs.toByteArray(hash));
+		}
+	}
+	
+	/**
+	 * Stores a cost table received from a server, and removes the least recently stored tables if there are too many of them.
+	 */
+	static void saveSynced(long hash, Map<Item, GristSet> costs)
+	{
+		synchronized(SYNCED_LOCK)
+		{
+			saveAndPruneSynced(hash, costs);
+		}
+	}
+	
+	private static void saveAndPruneSynced(long hash, Map<Item, GristSet> costs)
+	{
+		Path path = getSyncedPath(hash);
+		save(path, Longs.toByteArray(hash), costs);
+		
+		try(Stream<Path> files = Files.list(path.getParent()))
+		{
+			List<Path> tables = files.filter(file -> file.toString().endsWith(".bin")).sorted(Comparator.comparing(GeneratedCostCache::lastModified).reversed()).collect(Collectors.toList());
+			for(int i = MAX_SYNCED_TABLES; i < tables.size(); i++)
+				Files.deleteIfExists(tables.get(i));
+		} catch(IOException | UncheckedIOException e)
+		{
+			LOGGER.warn("Unable to clean up old grist cost tables in {}", path.getParent(), e);
+		}
+	}
+	
+	private static FileTime lastModified(Path path)
+	{
+		try
+		{
+			return Files.getLastModifiedTime(path);
+		} catch(IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Nullable
+	private static Map<Item, GristSet> load(Path path, byte[] fingerprint)
+	{
+		if(!Files.exists(path))
+			return null;
+		
+		try(DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path)))))
+		{
+			if(input.readInt() != FORMAT_VERSION)
+				return null;
+			byte[] storedFingerprint = new byte[input.readUnsignedShort()];
+			input.readFully(storedFingerprint);
+			if(!Arrays.equals(fingerprint, storedFingerprint))
+				return null;
+			
+			GristType[] types = new GristType[input.readUnsignedShort()];
+			for(int i = 0; i < types.length; i++)
+			{
+				ResourceLocation name = new ResourceLocation(input.readUTF());
+				types[i] = GristTypes.getRegistry().getValue(name);
+				if(types[i] == null)
+					return null;
+			}
+			
+			int size = input.readInt();
+			ImmutableMap.Builder<Item, GristSet> builder = ImmutableMap.builder();
+			for(int i = 0; i < size; i++)
+			{
+				ResourceLocation name = new ResourceLocation(input.readUTF());
+				if(!ForgeRegistries.ITEMS.containsKey(name))
+					return null;
+				Item item = ForgeRegistries.ITEMS.getValue(name);
+				
+				GristSet cost = new GristSet();
+				int entries = input.readUnsignedByte();
+				for(int j = 0; j < entries; j++)
+					cost.addGrist(types[input.readUnsignedShort()], input.readLong());
+				builder.put(item, cost.asImmutable());
+			}
+			return builder.build();
+		} catch(IOException | RuntimeException e)
+		{
+			LOGGER.warn("Unable to read grist cost cache from {}. It will be ignored.", path, e);
+			return null;
+		}
+	}
+	
+	private static void save(Path path, byte[] fingerprint, Map<Item, GristSet> costs)
+	{
+		try
+		{
+			Files.createDirectories(path.getParent());
+			Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			
+			List<GristType> types = new ArrayList<>(GristTypes.values());
+			Map<GristType, Integer> typeIndices = new HashMap<>();
+			for(int i = 0; i < types.size(); i++)
+				typeIndices.put(types.get(i), i);
+			
+			try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempPath)))))
+			{
+				output.writeInt(FORMAT_VERSION);
+				output.writeShort(fingerprint.length);
+				output.write(fingerprint);
+				
+				output.writeShort(types.size());
+				for(GristType type : types)
+					output.writeUTF(Objects.requireNonNull(type.getRegistryName()).toString());
+				
+				output.writeInt(costs.size());
+				for(Map.Entry<Item, GristSet> entry : costs.entrySet())
+				{
+					output.writeUTF(Objects.requireNonNull(entry.getKey().getRegistryName()).toString());
+					List<GristType> costTypes = new ArrayList<>();
+					entry.getValue().forEach((type, amount) -> costTypes.add(type));
+					output.writeByte(costTypes.size());
+					for(GristType type : costTypes)
+					{
+						output.writeShort(typeIndices.get(type));
+						output.writeLong(entry.getValue().getGrist(type));
+					}
+				}
+			}
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		} catch(IOException | RuntimeException e)
+		{
+			LOGGER.warn("Unable to write grist cost cache to {}", path, e);
+		}
+	}
+}
\ No newline at end of file
@@ -2,10 +2,24 @@ package com.mraof.minestuck.item.crafting.alchemy.generator;
 
 import net.minecraft.item.Item;
 
+import javax.annotation.Nullable;
+import java.util.Collection;
+
 public interface GeneratedCostProvider
 {
 	GristCostResult generate(Item item, GristCostResult lastCost, GenerationContext context);
 	
+	/**
+	 * Returns all items that {@link #generate} may look up through the generation context for the given item.
+	 * Used by {@link GristCostGenerator} to order generation by dependencies so that independent items can be generated in parallel.
+	 * Null means that the dependencies are unknown, in which case the item and everything depending on it is generated sequentially.
+	 */
+	@Nullable
+	default Collection<Item> getDependencies(Item item)
+	{
+		return null;
+	}
+	
 	default void build()
 	{}
 }
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.mraof.minestuck.item.crafting.alchemy.generator;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import com.mraof.minestuck.Minestuck;
+import com.mraof.minestuck.item.crafting.MSRecipeTypes;
+import com.mraof.minestuck.item.crafting.alchemy.GristCostRecipe;
+import com.mraof.minestuck.item.crafting.alchemy.GristSet;
+import com.mraof.minestuck.item.crafting.alchemy.GristType;
+import com.mraof.minestuck.item.crafting.alchemy.GristTypes;
+import com.mraof.minestuck.network.GristCostTableRequestPacket;
+import com.mraof.minestuck.network.MSPacketHandler;
+import com.mraof.minestuck.network.data.GristCostTablePacket;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.crafting.RecipeManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.Util;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Handles sending recipe-generated grist costs to clients.
+ * The recipe packet only carries a hash of the cost table. A client that has a table with that hash stored from an earlier session uses that,
+ * and otherwise requests the table from the server, which answers with the differences to the table the client has stored most recently,
+ * or the full table if the server no longer knows that table.
+ * Stored tables are read and written on the io thread pool, so that neither the network thread nor the client thread waits on the disk.
+ */
+@Mod.EventBusSubscriber(modid = Minestuck.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class GeneratedCostSync
+{
+	private static final Logger LOGGER = LogManager.getLogger();
+	
+	private static final int MAX_SERVER_TABLES = 4;
+	
+	/**
+	 * Recent tables on the server side, which requesting clients may have a diff created against.
+	 */
+	private static final Map<Long, Map<Item, GristSet>> serverTables = new LinkedHashMap<Long, Map<Item, GristSet>>()
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Map<Item, GristSet>> eldest)
+		{
+			return size() > MAX_SERVER_TABLES;
+		}
+	};
+	
+	/**
+	 * The request that was last answered for each player, so that repeated requests for the same table are ignored until the next recipe reload.
+	 */
+	private static final Map<UUID, ServedRequest> servedRequests = new HashMap<>();
+	
+	/**
+	 * The table that the client received or loaded most recently, which is used as base when requesting a new table.
+	 * Recipes are read on the network thread, so this is replaced as a whole rather than modified.
+	 */
+	private static volatile ClientTable clientTable = null;
+	
+	private GeneratedCostSync()
+	{}
+	
+	/**
+	 * Creates a hash of the table that does not depend on registry ids, so that it stays the same between sessions.
+	 */
+	static long hash(Map<Item, GristSet> costs)
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		List<Map.Entry<Item, GristSet>> entries = new ArrayList<>(costs.entrySet());
+		entries.sort(Comparator.comparing(entry -> String.valueOf(entry.getKey().getRegistryName())));
+		for(Map.Entry<Item, GristSet> entry : entries)
+		{
+			StringBuilder builder = new StringBuilder().append(entry.getKey().getRegistryName()).append('=');
+			entry.getValue().forEach((type, amount) -> builder.append(type.getRegistryName()).append(':').append(amount).append(','));
+			digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		
+		return Longs.fromByteArray(digest.digest());
+	}
+	
+	static void rememberServerTable(long hash, Map<Item, GristSet> costs)
+	{
+		synchronized(serverTables)
+		{
+			serverTables.put(hash, costs);
+		}
+		synchronized(servedRequests)
+		{
+			servedRequests.clear();
+		}
+	}
+	
+	@SubscribeEvent
+	public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event)
+	{
+		synchronized(servedRequests)
+		{
+			servedRequests.remove(event.getPlayer().getGameProfile().getId());
+		}
+	}
+	
+	/**
+	 * A client may ask for the full table once after having received a diff, in case the diff could not be applied.
+	 * Any other repeated request for the same table is ignored.
+	 * @return true if the request should be answered
+	 */
+	private static boolean markServed(ServerPlayerEntity player, long hash, long baseHash)
+	{
+		synchronized(servedRequests)
+		{
+			ServedRequest served = servedRequests.get(player.getGameProfile().getId());
+			if(served != null && served.hash == hash && (served.sentFullTable || baseHash != 0))
+				return false;
+			servedRequests.put(player.getGameProfile().getId(), new ServedRequest(hash, baseHash == 0));
+			return true;
+		}
+	}
+	
+	/**
+	 * Writes costs with varint item ids, varint grist registry ids and varlong amounts.
+	 */
+	public static void writeCosts(Map<Item, GristSet> costs, PacketBuffer buffer)
+	{
+		buffer.writeVarInt(costs.size());
+		for(Map.Entry<Item, GristSet> entry : costs.entrySet())
+		{
+			buffer.writeVarInt(Item.getId(entry.getKey()));
+			List<GristType> types = new ArrayList<>();
+			entry.getValue().forEach((type, amount) -> types.add(type));
+			buffer.writeVarInt(types.size());
+			for(GristType type : types)
+			{
+				buffer.writeRegistryIdUnsafe(GristTypes.getRegistry(), type);
+				buffer.writeVarLong(entry.getValue().getGrist(type));
+			}
+		}
+	}
+	
+	public static Map<Item, GristSet> readCosts(PacketBuffer buffer)
+	{
+		int size = buffer.readVarInt();
+		Map<Item, GristSet> costs = new HashMap<>(size * 2);
+		for(int i = 0; i < size; i++)
+		{
+			Item item = Item.byId(buffer.readVarInt());
+			GristSet cost = new GristSet();
+			int entries = buffer.readVarInt();
+			for(int j = 0; j < entries; j++)
+			{
+				GristType type = buffer.readRegistryIdUnsafe(GristTypes.getRegistry());
+				cost.addGrist(type, buffer.readVarLong());
+			}
+			costs.put(item, cost.asImmutable());
+		}
+		return costs;
+	}
+	
+	@Nullable
+	static RecipeGeneratedCostHandler findHandler(RecipeManager recipeManager)
+	{
+		for(GristCostRecipe recipe : recipeManager.getAllRecipesFor(MSRecipeTypes.GRIST_COST_TYPE))
+		{
+			if(recipe instanceof RecipeGeneratedGristCost)
+				return ((RecipeGeneratedGristCost) recipe).getHandler();
+		}
+		return null;
+	}
+	
+	/**
+	 * Called on the client after recipes have been received. Looks for the cost table on disk, and requests it from the server if it isn't there.
+	 * @param mainThread executor for the client thread, which the table is applied on
+	 * @return a future completed on the client thread, with true if a stored table was applied to the recipes
+	 */
+	public static CompletableFuture<Boolean> requestMissingCosts(RecipeManager recipeManager, Executor mainThread)
+	{
+		RecipeGeneratedCostHandler handler = findHandler(recipeManager);
+		if(handler == null || !handler.isMissingCosts())
+			return CompletableFuture.completedFuture(false);
+		
+		long hash = handler.getHash();
+		return CompletableFuture.supplyAsync(() -> GeneratedCostCache.loadSynced(hash), Util.ioPool()).thenApplyAsync(table -> {
+			if(!handler.isMissingCosts())
+				return false;	//The table was received from the server in the meantime
+			
+			if(table != null)
+			{
+				handler.setSyncedCosts(table);
+				clientTable = new ClientTable(hash, table);
+				return true;
+			}
+			
+			ClientTable base = clientTable;
+			MSPacketHandler.sendToServer(new GristCostTableRequestPacket(hash, base != null ? base.hash : 0));
+			return false;
+		}, mainThread);
+	}
+	
+	/**
+	 * Called on the server when a client requests a cost table.
+	 */
+	public static void handleRequest(ServerPlayerEntity player, long hash, long baseHash)
+	{
+		RecipeGeneratedCostHandler handler = findHandler(player.server.getRecipeManager());
+		if(handler == null || handler.getHash() != hash)
+			return;	//The recipes have changed since the request was sent, and the client will send a new request when it receives them
+		if(!markServed(player, hash, baseHash))
+		{
+			LOGGER.debug("Ignoring repeated grist cost table request from {}", player.getGameProfile().getName());
+			return;
+		}
+		
+		Map<Item, GristSet> base;
+		synchronized(serverTables)
+		{
+			base = baseHash != 0 ? serverTables.get(baseHash) : null;
+		}
+		Map<Item, GristSet> costs = handler.getCosts();
+		
+		if(base == null)
+		{
+			if(baseHash != 0)
+				markServed(player, hash, 0);	//The client gets the full table, so there is no reason for it to ask for it again
+			MSPacketHandler.sendToPlayer(new GristCostTablePacket(hash, 0, costs, Collections.emptyList()), player);
+			return;
+		}
+		
+		Map<Item, GristSet> changed = new HashMap<>();
+		for(Map.Entry<Item, GristSet> entry : costs.entrySet())
+		{
+			GristSet baseCost = base.get(entry.getKey());
+			if(baseCost == null || !baseCost.getAmounts().equals(entry.getValue().getAmounts()))
+				changed.put(entry.getKey(), entry.getValue());
+		}
+		List<Item> removed = new ArrayList<>();
+		for(Item item : base.keySet())
+		{
+			if(!costs.containsKey(item))
+				removed.add(item);
+		}
+		
+		LOGGER.debug("Sending grist cost table to {} as a diff with {} changed and {} removed entries", player.getGameProfile().getName(), changed.size(), removed.size());
+		MSPacketHandler.sendToPlayer(new GristCostTablePacket(hash, baseHash, changed, removed), player);
+	}
+	
+	/**
+	 * Called on the client when a cost table has been received.
+	 * @return true if the table was applied to the current recipes
+	 */
+	public static boolean receiveTable(RecipeManager recipeManager, long hash, long baseHash, Map<Item, GristSet> changed, Collection<Item> removed)
+	{
+		RecipeGeneratedCostHandler handler = findHandler(recipeManager);
+		if(handler == null || handler.getHash() != hash)
+			return false;
+		
+		Map<Item, GristSet> costs = new HashMap<>();
+		if(baseHash != 0)
+		{
+			//The diff is made against the table that was in memory when the request was sent
+			ClientTable lastTable = clientTable;
+			if(lastTable == null || lastTable.hash != baseHash)
+			{
+				MSPacketHandler.sendToServer(new GristCostTableRequestPacket(hash, 0));
+				return false;
+			}
+			costs.putAll(lastTable.costs);
+		}
+		costs.keySet().removeAll(removed);
+		costs.putAll(changed);
+		
+		if(hash(costs) != hash)
+		{
+			if(baseHash != 0)
+			{
+				LOGGER.warn("Received grist cost diff did not match the expected hash. Requesting the full table instead.");
+				MSPacketHandler.sendToServer(new GristCostTableRequestPacket(hash, 0));
+			} else LOGGER.error("Received grist cost table did not match the expected hash. Recipe-generated grist costs will be missing.");
+			return false;
+		}
+		
+		Map<Item, GristSet> table = ImmutableMap.copyOf(costs);
+		handler.setSyncedCosts(table);
+		clientTable = new ClientTable(hash, table);
+		Util.ioPool().execute(() -> GeneratedCostCache.saveSynced(hash, table));
+		return true;
+	}
+	
+	/**
+	 * Called on the client when reading the recipe packet, which is done on the network thread. Only looks at the table in memory.
+	 * Tables stored on disk are instead loaded by {@link #requestMissingCosts(RecipeManager, Executor)}.
+	 * @return the table with the given hash if the client has it in memory, or null if it needs to be loaded or requested
+	 */
+	@Nullable
+	static Map<Item, GristSet> findClientTable(long hash)
+	{
+		ClientTable lastTable = clientTable;
+		return lastTable != null && lastTable.hash == hash ? lastTable.costs : null;
+	}
+	
+	private static class ServedRequest
+	{
+		private final long hash;
+		private final boolean sentFullTable;
+		
+		private ServedRequest(long hash, boolean sentFullTable)
+		{
+			this.hash = hash;
+			this.sentFullTable = sentFullTable;
+		}
+	}
+	
+	private static class ClientTable
+	{
+		private final long hash;
+		private final Map<Item, GristSet> costs;
+		
+		private ClientTable(long hash, Map<Item, GristSet> costs)
+		{
+			this.hash = hash;
+			this.costs = costs;
+		}
+	}
+}
\ No newline at end of file
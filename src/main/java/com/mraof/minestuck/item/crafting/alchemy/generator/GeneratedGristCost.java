@@ -14,14 +14,15 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 
 public abstract class GeneratedGristCost extends GristCostRecipe implements GeneratedCostProvider
 {
-	private ImmutableGristSet cachedCost = null;
-	private boolean hasGeneratedCost = false;
+	private volatile ImmutableGristSet cachedCost = null;
+	private volatile boolean hasGeneratedCost = false;	//Set after cachedCost, since costs may be generated on several threads at once
 	
 	protected GeneratedGristCost(ResourceLocation id, Ingredient ingredient, @Nullable Integer priority)
 	{
@@ -74,9 +75,9 @@ public abstract class GeneratedGristCost extends GristCostRecipe implements Gene
 			GristSet cost = generateCost(context);
 			if(context.isPrimary())
 			{
-				hasGeneratedCost = true;
 				if(cost != null)
 					cachedCost = cost.asImmutable();
+				hasGeneratedCost = true;
 			}
 			return GristCostResult.ofOrNull(cost);
 		}
@@ -84,6 +85,19 @@ public abstract class GeneratedGristCost extends GristCostRecipe implements Gene
 	
 	protected abstract GristSet generateCost(GenerationContext context);
 	
+	/**
+	 * Returns all items that {@link #generateCost} may look up, or null if they can't be determined.
+	 * See {@link GeneratedCostProvider#getDependencies(Item)}.
+	 */
+	@Nullable
+	protected abstract Collection<Item> getDependencies();
+	
+	@Override
+	public final Collection<Item> getDependencies(Item item)
+	{
+		return getDependencies();
+	}
+	
 	protected final GristSet getCachedCost()
 	{
 		return cachedCost;
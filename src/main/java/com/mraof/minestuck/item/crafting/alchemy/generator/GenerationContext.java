@@ -5,6 +5,7 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.Ingredient;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -97,6 +98,28 @@ public class GenerationContext
 		return minCost;
 	}
 	
+	/**
+	 * Adds all items that {@link #costForIngredient} may look up for the given ingredient to the collection.
+	 * @return false if the ingredient can't be tested by item alone, which means that the looked up items can't be determined
+	 */
+	public static boolean addIngredientDependencies(Ingredient ingredient, boolean removeContainerCost, Collection<Item> dependencies)
+	{
+		if(!ingredient.isVanilla() && !ingredient.isSimple())
+			return false;
+		
+		for(ItemStack stack : ingredient.getItems())
+		{
+			dependencies.add(stack.getItem());
+			if(removeContainerCost)
+			{
+				ItemStack container = stack.getContainerItem();
+				if(!container.isEmpty())
+					dependencies.add(container.getItem());
+			}
+		}
+		return true;
+	}
+	
 	public GristSet lookupCostFor(ItemStack stack)
 	{
 		return lookupCostFor(stack.getItem());
@@ -8,14 +8,18 @@ import net.minecraft.item.Item;
 import net.minecraft.item.crafting.RecipeManager;
 import net.minecraft.profiler.IProfiler;
 import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.Util;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -60,11 +64,19 @@ public final class GristCostGenerator extends ReloadListener<Void>
 		}
 		
 		LOGGER.debug("Starting grist cost generation");
-		//Iterate through items
-		for(Item item : process.providersByItem.keySet())
+		long startTime = System.nanoTime();
+		GenerationOrder order = GenerationOrder.create(process);
+		
+		//Items without cyclic or unknown dependencies get the same cost no matter the order they are generated in,
+		// so each stratum of those can be generated in parallel once all strata below it are done
+		for(List<Item> stratum : order.strata)
 		{
-			lookupCost(process, new GenerationContext(item, (context1) -> lookupCost(process, context1)));
+			CompletableFuture.allOf(stratum.stream().map(item -> CompletableFuture.runAsync(() -> generateFor(process, item), Util.backgroundExecutor()))
+					.toArray(CompletableFuture[]::new)).join();
 		}
+		//The remaining items are generated one at a time in the original order, since that order affects how cycles are resolved
+		for(Item item : order.sequential)
+			generateFor(process, item);
 		
 		for(GeneratedCostProvider provider : process.providers)
 		{
@@ -76,9 +88,19 @@ public final class GristCostGenerator extends ReloadListener<Void>
 				LOGGER.error("Got exception while building generated cost provider {}:", provider, e);
 			}
 		}
+		
+		long time = System.nanoTime() - startTime;
+		int itemCount = process.providersByItem.size();
+		LOGGER.info("Generated grist costs for {} items in {} ms ({} items/s). Dependency depth: {}, cycles: {}, items generated sequentially: {}",
+				itemCount, time / 1_000_000, time > 0 ? itemCount * 1_000_000_000L / time : itemCount, order.strata.size(), order.cycleCount, order.sequential.size());
 		LOGGER.debug("Finished grist cost generation");
 	}
 	
+	private void generateFor(GeneratorProcess process, Item item)
+	{
+		lookupCost(process, new GenerationContext(item, (context1) -> lookupCost(process, context1)));
+	}
+	
 	private GristSet lookupCost(GeneratorProcess process, GenerationContext context)
 	{
 		Item item = context.getCurrentItem();
@@ -102,5 +124,162 @@ public final class GristCostGenerator extends ReloadListener<Void>
 	{
 		private final Map<Item, List<GeneratedCostProvider>> providersByItem = new HashMap<>();
 		private final Set<GeneratedCostProvider> providers = new HashSet<>();
+		
+		@Nullable
+		private Set<Item> getDependencies(Item item)
+		{
+			Set<Item> dependencies = new HashSet<>();
+			for(GeneratedCostProvider provider : providersByItem.get(item))
+			{
+				Collection<Item> providerDependencies;
+				try
+				{
+					providerDependencies = provider.getDependencies(item);
+				} catch(Exception e)
+				{
+					LOGGER.error("Got exception from generated cost provider {} while finding dependencies for item {}:", provider, item, e);
+					providerDependencies = null;
+				}
+				if(providerDependencies == null)
+					return null;
+				
+				for(Item dependency : providerDependencies)
+				{
+					//Items without providers always get a null cost, and can be ignored
+					if(providersByItem.containsKey(dependency))
+						dependencies.add(dependency);
+				}
+			}
+			return dependencies;
+		}
+	}
+	
+	/**
+	 * Splits the items of a generator process into strata of items that can be generated in parallel,
+	 * and items that have to be generated sequentially because they depend on a cycle or on an item with unknown dependencies.
+	 * Cycles are found as strongly connected components with Tarjan's algorithm.
+	 */
+	private static class GenerationOrder
+	{
+		private final List<List<Item>> strata = new ArrayList<>();
+		private final List<Item> sequential = new ArrayList<>();
+		private int cycleCount;
+		
+		private static GenerationOrder create(GeneratorProcess process)
+		{
+			GenerationOrder order = new GenerationOrder();
+			
+			Map<Item, Set<Item>> graph = new HashMap<>();
+			for(Item item : process.providersByItem.keySet())
+				graph.put(item, process.getDependencies(item));
+			
+			//Components are found in reverse topological order, meaning that dependencies come before the items depending on them
+			Map<Item, Integer> levels = new HashMap<>();	//The stratum of each item, or -1 if it has to be generated sequentially
+			for(List<Item> component : findComponents(graph))
+			{
+				boolean isCycle = component.size() > 1 || graph.get(component.get(0)) != null && graph.get(component.get(0)).contains(component.get(0));
+				if(isCycle)
+					order.cycleCount++;
+				
+				for(Item item : component)
+				{
+					Set<Item> dependencies = graph.get(item);
+					int level = 0;
+					if(isCycle || dependencies == null)
+						level = -1;
+					else for(Item dependency : dependencies)
+					{
+						int dependencyLevel = levels.get(dependency);
+						if(dependencyLevel == -1)
+						{
+							level = -1;
+							break;
+						} else level = Math.max(level, dependencyLevel + 1);
+					}
+					levels.put(item, level);
+				}
+			}
+			
+			for(Item item : process.providersByItem.keySet())
+			{
+				int level = levels.get(item);
+				if(level == -1)
+					order.sequential.add(item);
+				else
+				{
+					while(order.strata.size() <= level)
+						order.strata.add(new ArrayList<>());
+					order.strata.get(level).add(item);
+				}
+			}
+			return order;
+		}
+		
+		/**
+		 * Iterative version of Tarjan's strongly connected components algorithm, to not run out of stack on long dependency chains.
+		 * Items with unknown dependencies are treated as having none here.
+		 */
+		private static List<List<Item>> findComponents(Map<Item, Set<Item>> graph)
+		{
+			List<List<Item>> components = new ArrayList<>();
+			Map<Item, Integer> indices = new HashMap<>();
+			Map<Item, Integer> lowLinks = new HashMap<>();
+			Set<Item> onStack = new HashSet<>();
+			Deque<Item> stack = new ArrayDeque<>();
+			Deque<Pair<Item, Iterator<Item>>> callStack = new ArrayDeque<>();
+			
+			for(Item root : graph.keySet())
+			{
+				if(indices.containsKey(root))
+					continue;
+				
+				visit(root, graph, indices, lowLinks, onStack, stack, callStack);
+				while(!callStack.isEmpty())
+				{
+					Pair<Item, Iterator<Item>> frame = callStack.peek();
+					Item item = frame.getLeft();
+					if(frame.getRight().hasNext())
+					{
+						Item dependency = frame.getRight().next();
+						if(!indices.containsKey(dependency))
+							visit(dependency, graph, indices, lowLinks, onStack, stack, callStack);
+						else if(onStack.contains(dependency))
+							lowLinks.put(item, Math.min(lowLinks.get(item), indices.get(dependency)));
+					} else
+					{
+						callStack.pop();
+						if(lowLinks.get(item).equals(indices.get(item)))
+						{
+							List<Item> component = new ArrayList<>();
+							Item member;
+							do
+							{
+								member = stack.pop();
+								onStack.remove(member);
+								component.add(member);
+							} while(member != item);
+							components.add(component);
+						}
+						if(!callStack.isEmpty())
+						{
+							Item parent = callStack.peek().getLeft();
+							lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(item)));
+						}
+					}
+				}
+			}
+			return components;
+		}
+		
+		private static void visit(Item item, Map<Item, Set<Item>> graph, Map<Item, Integer> indices, Map<Item, Integer> lowLinks,
+								  Set<Item> onStack, Deque<Item> stack, Deque<Pair<Item, Iterator<Item>>> callStack)
+		{
+			indices.put(item, indices.size());
+			lowLinks.put(item, indices.get(item));
+			stack.push(item);
+			onStack.add(item);
+			Set<Item> dependencies = graph.get(item);
+			callStack.push(Pair.of(item, dependencies != null ? dependencies.iterator() : Collections.emptyIterator()));
+		}
 	}
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.mraof.minestuck.item.crafting.alchemy.generator;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
@@ -48,16 +47,23 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 	private final RecipeManager recipeManager;
 	private Map<Item, GristSet> generatedCosts = Collections.emptyMap();
 	private RecipeGeneratedCostProcess process = null;
+	private byte[] fingerprint = null;
+	private boolean isFromCache = false;
+	private long hash;
+	private boolean isMissingCosts = false;
 	
 	private RecipeGeneratedCostHandler(RecipeManager recipeManager)
 	{
 		this.recipeManager = recipeManager;
 	}
 	
-	private RecipeGeneratedCostHandler(Map<Item, GristSet> generatedCosts)
+	private RecipeGeneratedCostHandler(long hash, Map<Item, GristSet> generatedCosts)
 	{
 		recipeManager = null;
-		this.generatedCosts = generatedCosts;
+		this.hash = hash;
+		if(generatedCosts != null)
+			this.generatedCosts = generatedCosts;
+		else isMissingCosts = true;
 	}
 	
 	@SubscribeEvent(priority = EventPriority.HIGH)
@@ -71,14 +77,36 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 		return generatedCosts.get(item);
 	}
 	
+	Map<Item, GristSet> getCosts()
+	{
+		return generatedCosts;
+	}
+	
+	long getHash()
+	{
+		return hash;
+	}
+	
+	/**
+	 * @return true if this is a client-side handler that has not yet received its costs from the server
+	 */
+	boolean isMissingCosts()
+	{
+		return isMissingCosts;
+	}
+	
+	void setSyncedCosts(Map<Item, GristSet> costs)
+	{
+		generatedCosts = costs;
+		isMissingCosts = false;
+	}
+	
+	/**
+	 * Only the hash of the costs is sent with the recipe. The costs themselves are sent separately by {@link GeneratedCostSync} if the client doesn't already have them.
+	 */
 	void write(PacketBuffer buffer)
 	{
-		buffer.writeInt(generatedCosts.size());
-		for(Map.Entry<Item, GristSet> entry : generatedCosts.entrySet())
-		{
-			buffer.writeVarInt(Item.getId(entry.getKey()));
-			entry.getValue().write(buffer);
-		}
+		buffer.writeLong(hash);
 	}
 	
 	static RecipeGeneratedCostHandler read(PacketBuffer buffer)
@@ -86,15 +114,8 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 		if(buffer.readableBytes() == 0)
 			return null;
 		
-		int size = buffer.readInt();
-		ImmutableMap.Builder<Item, GristSet> builder = new ImmutableMap.Builder<>();
-		for(int i = 0; i < size; i++)
-		{
-			Item item = Item.byId(buffer.readVarInt());
-			GristSet cost = GristSet.read(buffer);
-			builder.put(item, cost);
-		}
-		return new RecipeGeneratedCostHandler(builder.build());
+		long hash = buffer.readLong();
+		return new RecipeGeneratedCostHandler(hash, GeneratedCostSync.findClientTable(hash));
 	}
 	
 	List<JeiGristCost> createJeiCosts()
@@ -201,7 +222,13 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 			throw new IllegalStateException("Grist cost generator is supposed to be executed on server thread after initializing. The failure of this assertion is not good!");
 		}
 		
-		this.process = new RecipeGeneratedCostProcess(prepareRecipeMap(sources, recipeManager));
+		fingerprint = GeneratedCostCache.fingerprint(recipeManager, sources);
+		Map<Item, GristSet> cachedCosts = fingerprint != null ? GeneratedCostCache.load(fingerprint) : null;
+		if(cachedCosts != null)
+		{
+			generatedCosts = cachedCosts;
+			isFromCache = true;
+		} else this.process = new RecipeGeneratedCostProcess(prepareRecipeMap(sources, recipeManager));
 		
 		for(IRecipe<?> recipe : recipeManager.getRecipes())
 		{
@@ -213,31 +240,51 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 		}
 		
 		process = null;
+		isFromCache = false;
 		if(!sources.isEmpty())
 			LOGGER.warn("Did not find a recipe for recipe generated grist costs. Grist costs will not be generated!");
 	}
 	
 	void addAsProvider(BiConsumer<Item, GeneratedCostProvider> consumer)
 	{
-		for(Item item : process.itemSet())
+		for(Item item : isFromCache ? generatedCosts.keySet() : process.itemSet())
 			consumer.accept(item, this);
 	}
 	
 	@Override
 	public GristCostResult generate(Item item, GristCostResult lastCost, GenerationContext context)
 	{
-		return process.generateCost(item, lastCost, context);
+		if(isFromCache)
+			return lastCost != null ? lastCost : GristCostResult.ofOrNull(generatedCosts.get(item));
+		else return process.generateCost(item, lastCost, context);
+	}
+	
+	@Override
+	public Collection<Item> getDependencies(Item item)
+	{
+		if(isFromCache)
+			return Collections.emptyList();
+		else return process.getDependencies(item);
 	}
 	
 	@Override
 	public void build()
 	{
-		if(process != null)
+		if(isFromCache)
+		{
+			isFromCache = false;
+			LOGGER.info("Loaded {} recipe-generated grist conversions from cache.", generatedCosts.size());
+		} else if(process != null)
 		{
 			generatedCosts = process.buildMap();
 			process = null;
 			LOGGER.info("Generated {} grist conversions from recipes.", generatedCosts.size());
+			if(fingerprint != null)
+				GeneratedCostCache.save(fingerprint, generatedCosts);
 		} else throw new IllegalStateException("Tried to build recipe-generated costs, but did not have an ongoing process!");
+		
+		hash = GeneratedCostSync.hash(generatedCosts);
+		GeneratedCostSync.rememberServerTable(hash, generatedCosts);
 	}
 	
 	/**
@@ -282,8 +329,8 @@ public class RecipeGeneratedCostHandler extends ReloadListener<List<RecipeGenera
 	
 	static class SourceEntry
 	{
-		private final Source source;
-		private final RecipeInterpreter interpreter;
+		final Source source;
+		final RecipeInterpreter interpreter;
 		
 		private SourceEntry(Source source, RecipeInterpreter interpreter)
 		{
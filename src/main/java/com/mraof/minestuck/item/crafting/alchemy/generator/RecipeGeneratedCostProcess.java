@@ -10,13 +10,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 class RecipeGeneratedCostProcess
 {
 	private static final Logger LOGGER = LogManager.getLogger();
 	
 	private final Map<Item, List<Pair<IRecipe<?>, RecipeInterpreter>>> lookupMap;
-	private final Map<Item, GristSet> generatedCosts = new HashMap<>();
+	private final Map<Item, GristCostResult> generatedCosts = new ConcurrentHashMap<>();	//Results are wrapped since the cost may be null
 	
 	RecipeGeneratedCostProcess(Map<Item, List<Pair<IRecipe<?>, RecipeInterpreter>>> lookupMap)
 	{
@@ -26,9 +27,13 @@ class RecipeGeneratedCostProcess
 	Map<Item, GristSet> buildMap()
 	{
 		//Clean out null grist costs
-		generatedCosts.entrySet().removeIf(entry -> entry.getValue() == null);
+		ImmutableMap.Builder<Item, GristSet> builder = ImmutableMap.builder();
+		generatedCosts.forEach((item, result) -> {
+			if(result.getCost() != null)
+				builder.put(item, result.getCost());
+		});
 		
-		return ImmutableMap.copyOf(generatedCosts);
+		return builder.build();
 	}
 	
 	Set<Item> itemSet()
@@ -36,6 +41,19 @@ class RecipeGeneratedCostProcess
 		return lookupMap.keySet();
 	}
 	
+	Collection<Item> getDependencies(Item item)
+	{
+		Set<Item> dependencies = new HashSet<>();
+		for(Pair<IRecipe<?>, RecipeInterpreter> recipePair : lookupMap.getOrDefault(item, Collections.emptyList()))
+		{
+			Collection<Item> recipeDependencies = recipePair.getRight().getDependencies(recipePair.getLeft());
+			if(recipeDependencies == null)
+				return null;
+			dependencies.addAll(recipeDependencies);
+		}
+		return dependencies;
+	}
+	
 	GristCostResult generateCost(Item item, GristCostResult lastCost, GenerationContext context)
 	{
 		if(lastCost != null)
@@ -45,14 +63,14 @@ class RecipeGeneratedCostProcess
 			return lastCost;
 		} else if(generatedCosts.containsKey(item))
 		{
-			return GristCostResult.ofOrNull(generatedCosts.get(item));
+			return GristCostResult.ofOrNull(generatedCosts.get(item).getCost());
 		} else
 		{
 			GristSet result = costFromRecipes(item, true, context);
 			//TODO Clean cost of entries with 0, set it to null if it is empty (no free cookies for you). Also log these events so that the costs of base ingredients can be modified accordingly
 			
 			if(context.isPrimary())
-				generatedCosts.put(item, result);
+				generatedCosts.put(item, new GristCostResult(result));
 			return GristCostResult.ofOrNull(result);
 		}
 	}
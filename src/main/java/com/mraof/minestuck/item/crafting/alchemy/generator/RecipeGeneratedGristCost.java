@@ -36,6 +36,11 @@ public class RecipeGeneratedGristCost extends GristCostRecipe
 		this.handler = handler;
 	}
 	
+	RecipeGeneratedCostHandler getHandler()
+	{
+		return handler;
+	}
+	
 	@Override
 	public GristSet getGristCost(ItemStack input, GristType wildcardType, boolean shouldRoundDown, World world)
 	{
@@ -4,6 +4,8 @@ import com.mraof.minestuck.item.crafting.alchemy.GristSet;
 import net.minecraft.item.Item;
 import net.minecraft.item.crafting.IRecipe;
 
+import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 
 public interface RecipeInterpreter
@@ -12,5 +14,15 @@ public interface RecipeInterpreter
 	
 	GristSet generateCost(IRecipe<?> recipe, Item output, GenerationContext context);
 	
+	/**
+	 * Returns all items that {@link #generateCost} may look up for the given recipe, or null if they can't be determined.
+	 * See {@link GeneratedCostProvider#getDependencies(Item)}.
+	 */
+	@Nullable
+	default Collection<Item> getDependencies(IRecipe<?> recipe)
+	{
+		return null;
+	}
+	
 	InterpreterSerializer<?> getSerializer();
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.registries.ObjectHolder;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 public class SmithingInterpreter extends DefaultInterpreter
 {
@@ -52,6 +55,23 @@ public class SmithingInterpreter extends DefaultInterpreter
 		}
 	}
 	
+	@Override
+	public Collection<Item> getDependencies(IRecipe<?> recipe)
+	{
+		try
+		{
+			Set<Item> dependencies = new HashSet<>();
+			if(GenerationContext.addIngredientDependencies((Ingredient) baseField.get(recipe), true, dependencies)
+					&& GenerationContext.addIngredientDependencies((Ingredient) additionField.get(recipe), true, dependencies))
+				return dependencies;
+			else return null;
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+	
 	@Override
 	public InterpreterSerializer<?> getSerializer()
 	{
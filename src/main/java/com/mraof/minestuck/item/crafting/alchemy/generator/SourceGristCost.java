@@ -16,9 +16,7 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 public class SourceGristCost extends GeneratedGristCost
 {
@@ -57,6 +55,15 @@ public class SourceGristCost extends GeneratedGristCost
 		return costSum.scale(multiplier, false).addGrist(addedCost);
 	}
 	
+	@Override
+	protected Collection<Item> getDependencies()
+	{
+		Set<Item> dependencies = new HashSet<>();
+		for(Source source : sources)
+			source.addDependencies(dependencies);
+		return dependencies;
+	}
+	
 	@Override
 	public IRecipeSerializer<?> getSerializer()
 	{
@@ -95,6 +102,8 @@ public class SourceGristCost extends GeneratedGristCost
 	private interface Source
 	{
 		GristSet getCostFor(GenerationContext context);
+		
+		void addDependencies(Collection<Item> dependencies);
 	}
 	
 	private static class ItemSource implements Source
@@ -111,6 +120,12 @@ public class SourceGristCost extends GeneratedGristCost
 		{
 			return context.lookupCostFor(item);
 		}
+		
+		@Override
+		public void addDependencies(Collection<Item> dependencies)
+		{
+			dependencies.add(item);
+		}
 	}
 	
 	public static String itemString(Item item)
@@ -140,6 +155,12 @@ public class SourceGristCost extends GeneratedGristCost
 			}
 			return maxCost;
 		}
+		
+		@Override
+		public void addDependencies(Collection<Item> dependencies)
+		{
+			dependencies.addAll(tag.getValues());
+		}
 	}
 	
 	public static String tagString(ITag<Item> tag)
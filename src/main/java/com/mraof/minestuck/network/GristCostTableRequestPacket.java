@@ -0,0 +1,42 @@
+package com.mraof.minestuck.network;
+
+import com.mraof.minestuck.item.crafting.alchemy.generator.GeneratedCostSync;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * Sent by a client that is missing the recipe-generated grist costs with the given hash.
+ * The base hash is that of the most recent table that the client has, which the server may send a diff against. 0 if there is none.
+ */
+public class GristCostTableRequestPacket implements PlayToServerPacket
+{
+	private final long hash;
+	private final long baseHash;
+	
+	public GristCostTableRequestPacket(long hash, long baseHash)
+	{
+		this.hash = hash;
+		this.baseHash = baseHash;
+	}
+	
+	@Override
+	public void encode(PacketBuffer buffer)
+	{
+		buffer.writeLong(hash);
+		buffer.writeLong(baseHash);
+	}
+	
+	public static GristCostTableRequestPacket decode(PacketBuffer buffer)
+	{
+		long hash = buffer.readLong();
+		long baseHash = buffer.readLong();
+		
+		return new GristCostTableRequestPacket(hash, baseHash);
+	}
+	
+	@Override
+	public void execute(ServerPlayerEntity player)
+	{
+		GeneratedCostSync.handleRequest(player, hash, baseHash);
+	}
+}
\ No newline at end of file
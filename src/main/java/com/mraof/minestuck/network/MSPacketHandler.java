@@ -35,6 +35,7 @@ public class MSPacketHandler
 		registerMessage(GristCachePacket.class, GristCachePacket::decode);
 		registerMessage(TitleDataPacket.class, TitleDataPacket::decode);
 		registerMessage(LandTypesDataPacket.class, LandTypesDataPacket::decode);
+		registerMessage(GristCostTablePacket.class, GristCostTablePacket::decode);
 		
 		registerMessage(CaptchaDeckPacket.class, CaptchaDeckPacket::decode);
 		registerMessage(ColorSelectPacket.class, ColorSelectPacket::decode);
@@ -59,6 +60,7 @@ public class MSPacketHandler
 		registerMessage(StoneTabletPacket.class, StoneTabletPacket::decode);
 		registerMessage(MagicEffectPacket.class, MagicEffectPacket::decode);
 		registerMessage(LotusFlowerPacket.class, LotusFlowerPacket::decode);
+		registerMessage(GristCostTableRequestPacket.class, GristCostTableRequestPacket::decode);
 	}
 	
 	private static int nextIndex;
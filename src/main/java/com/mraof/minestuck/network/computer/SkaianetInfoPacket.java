@@ -2,7 +2,6 @@ package com.mraof.minestuck.network.computer;
 
 import com.mraof.minestuck.network.PlayToBothPacket;
 import com.mraof.minestuck.player.IdentifierHandler;
-import com.mraof.minestuck.skaianet.SburbConnection;
 import com.mraof.minestuck.skaianet.SkaianetHandler;
 import com.mraof.minestuck.skaianet.client.ReducedConnection;
 import com.mraof.minestuck.skaianet.client.SkaiaClient;
@@ -13,18 +12,28 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class SkaianetInfoPacket implements PlayToBothPacket
 {
 	public int playerId;
+	/**
+	 * If this update replaces all info about the player. Otherwise only changes since the last update are included.
+	 */
+	public boolean isFullUpdate;
 	public boolean isClientResuming, isServerResuming;
+	/**
+	 * Null if unchanged since the last update.
+	 */
 	public Map<Integer, String> openServers;
-	public List<SburbConnection> connectionsFrom;
-	public List<ReducedConnection> connectionsTo;
+	/**
+	 * Connections that are new or have changed, or all connections of the player for a full update.
+	 */
+	public List<ReducedConnection> connections;
+	/**
+	 * Keys of connections that no longer concern the player. Only used for partial updates.
+	 */
+	public long[] removedConnections;
 	public List<List<RegistryKey<World>>> landChains;
 	
 	public static SkaianetInfoPacket landChains(List<List<RegistryKey<World>>> landChains)
@@ -35,14 +44,30 @@ public class SkaianetInfoPacket implements PlayToBothPacket
 		return packet;
 	}
 	
-	public static SkaianetInfoPacket update(int playerId, boolean isClientResuming, boolean isServerResuming, Map<Integer, String> openServers, List<SburbConnection> connections)
+	public static SkaianetInfoPacket update(int playerId, boolean isClientResuming, boolean isServerResuming, Map<Integer, String> openServers, List<ReducedConnection> connections)
 	{
 		SkaianetInfoPacket packet = new SkaianetInfoPacket();
 		packet.playerId = playerId;
+		packet.isFullUpdate = true;
+		packet.isClientResuming = isClientResuming;
+		packet.isServerResuming = isServerResuming;
+		packet.openServers = Objects.requireNonNull(openServers);
+		packet.connections = connections;
+		packet.removedConnections = new long[0];
+		
+		return packet;
+	}
+	
+	public static SkaianetInfoPacket partialUpdate(int playerId, boolean isClientResuming, boolean isServerResuming, Map<Integer, String> openServers, List<ReducedConnection> changedConnections, long[] removedConnections)
+	{
+		SkaianetInfoPacket packet = new SkaianetInfoPacket();
+		packet.playerId = playerId;
+		packet.isFullUpdate = false;
 		packet.isClientResuming = isClientResuming;
 		packet.isServerResuming = isServerResuming;
 		packet.openServers = openServers;
-		packet.connectionsFrom = connections;
+		packet.connections = changedConnections;
+		packet.removedConnections = removedConnections;
 		
 		return packet;
 	}
@@ -76,21 +101,29 @@ public class SkaianetInfoPacket implements PlayToBothPacket
 			buffer.writeBoolean(false);
 			buffer.writeInt(playerId);
 			
-			if(connectionsFrom != null)
+			if(connections != null)
 			{
-				
+				buffer.writeBoolean(isFullUpdate);
 				buffer.writeBoolean(isClientResuming);
 				buffer.writeBoolean(isServerResuming);
 				
-				buffer.writeInt(openServers.size());
-				for(Map.Entry<Integer, String> entry : openServers.entrySet())
+				buffer.writeBoolean(openServers != null);
+				if(openServers != null)
 				{
-					buffer.writeInt(entry.getKey());
-					buffer.writeUtf(entry.getValue(), 16);
+					buffer.writeVarInt(openServers.size());
+					for(Map.Entry<Integer, String> entry : openServers.entrySet())
+					{
+						buffer.writeInt(entry.getKey());
+						buffer.writeUtf(entry.getValue(), 16);
+					}
 				}
 				
-				for(SburbConnection connection : connectionsFrom)
-					connection.toBuffer(buffer);
+				buffer.writeVarInt(removedConnections.length);
+				for(long key : removedConnections)
+					buffer.writeLong(key);
+				
+				for(ReducedConnection connection : connections)
+					connection.write(buffer);
 			}
 		}
 	}
@@ -120,15 +153,25 @@ public class SkaianetInfoPacket implements PlayToBothPacket
 			
 			if(buffer.readableBytes() > 0)
 			{
+				packet.isFullUpdate = buffer.readBoolean();
 				packet.isClientResuming = buffer.readBoolean();
 				packet.isServerResuming = buffer.readBoolean();
-				int size = buffer.readInt();
-				packet.openServers = new HashMap<>();
-				for(int i = 0; i < size; i++)
-					packet.openServers.put(buffer.readInt(), buffer.readUtf(16));
-				packet.connectionsTo = new ArrayList<>();
+				
+				if(buffer.readBoolean())
+				{
+					int size = buffer.readVarInt();
+					packet.openServers = new HashMap<>();
+					for(int i = 0; i < size; i++)
+						packet.openServers.put(buffer.readInt(), buffer.readUtf(16));
+				}
+				
+				packet.removedConnections = new long[buffer.readVarInt()];
+				for(int i = 0; i < packet.removedConnections.length; i++)
+					packet.removedConnections[i] = buffer.readLong();
+				
+				packet.connections = new ArrayList<>();
 				while(buffer.readableBytes() > 0)
-					packet.connectionsTo.add(ReducedConnection.read(buffer));
+					packet.connections.add(ReducedConnection.read(buffer));
 			}
 		}
 		
@@ -0,0 +1,70 @@
+package com.mraof.minestuck.network.data;
+
+import com.mraof.minestuck.item.crafting.alchemy.GristSet;
+import com.mraof.minestuck.item.crafting.alchemy.generator.GeneratedCostSync;
+import com.mraof.minestuck.network.PlayToClientPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.item.Item;
+import net.minecraft.item.crafting.RecipeManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.client.event.RecipesUpdatedEvent;
+import net.minecraftforge.common.MinecraftForge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries recipe-generated grist costs, either as a full table (base hash 0) or as the changes to a table that the client already has.
+ */
+public class GristCostTablePacket implements PlayToClientPacket
+{
+	private final long hash;
+	private final long baseHash;
+	private final Map<Item, GristSet> changed;
+	private final Collection<Item> removed;
+	
+	public GristCostTablePacket(long hash, long baseHash, Map<Item, GristSet> changed, Collection<Item> removed)
+	{
+		this.hash = hash;
+		this.baseHash = baseHash;
+		this.changed = changed;
+		this.removed = removed;
+	}
+	
+	@Override
+	public void encode(PacketBuffer buffer)
+	{
+		buffer.writeLong(hash);
+		buffer.writeLong(baseHash);
+		buffer.writeVarInt(removed.size());
+		for(Item item : removed)
+			buffer.writeVarInt(Item.getId(item));
+		GeneratedCostSync.writeCosts(changed, buffer);
+	}
+	
+	public static GristCostTablePacket decode(PacketBuffer buffer)
+	{
+		long hash = buffer.readLong();
+		long baseHash = buffer.readLong();
+		int removedCount = buffer.readVarInt();
+		List<Item> removed = new ArrayList<>(removedCount);
+		for(int i = 0; i < removedCount; i++)
+			removed.add(Item.byId(buffer.readVarInt()));
+		Map<Item, GristSet> changed = GeneratedCostSync.readCosts(buffer);
+		
+		return new GristCostTablePacket(hash, baseHash, changed, removed);
+	}
+	
+	@Override
+	public void execute()
+	{
+		if(Minecraft.getInstance().getConnection() == null)
+			return;
+		
+		RecipeManager recipeManager = Minecraft.getInstance().getConnection().getRecipeManager();
+		if(GeneratedCostSync.receiveTable(recipeManager, hash, baseHash, changed, removed))
+			MinecraftForge.EVENT_BUS.post(new RecipesUpdatedEvent(recipeManager));	//Lets jei and other users of the recipes pick up the new costs
+	}
+}
\ No newline at end of file
@@ -4,30 +4,101 @@ import com.mraof.minestuck.network.PlayToClientPacket;
 import com.mraof.minestuck.world.storage.ClientPlayerData;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.INBT;
 import net.minecraft.network.PacketBuffer;
 
+import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.*;
 
+/**
+ * Sends the modus data of a player, either in full or as the changes to the modus data that was sent before.
+ * Changes are described by the top-level entries of the modus nbt, which for the moduses in minestuck is one entry per card,
+ * and entries that got a value that was previously under a different entry are sent as moves instead of sending the value again.
+ */
 public class ModusDataPacket implements PlayToClientPacket
 {
+	private final boolean isFullUpdate;
+	/**
+	 * The full modus data, or only the changed entries if this is not a full update.
+	 */
 	private final CompoundNBT nbt;
+	private final Map<String, String> movedEntries;
+	private final List<String> removedEntries;
 	
-	private ModusDataPacket(CompoundNBT nbt)
+	private ModusDataPacket(boolean isFullUpdate, CompoundNBT nbt, Map<String, String> movedEntries, List<String> removedEntries)
 	{
+		this.isFullUpdate = isFullUpdate;
 		this.nbt = nbt;
+		this.movedEntries = movedEntries;
+		this.removedEntries = removedEntries;
 	}
 	
 	public static ModusDataPacket create(CompoundNBT nbt)
 	{
-		return new ModusDataPacket(nbt);
+		return new ModusDataPacket(true, nbt, Collections.emptyMap(), Collections.emptyList());
+	}
+	
+	/**
+	 * Creates a packet with the changes from the previously sent modus data.
+	 */
+	public static ModusDataPacket createChanges(CompoundNBT prevNBT, CompoundNBT nbt)
+	{
+		if(prevNBT == null || nbt == null)
+			return create(nbt);
+		
+		Map<INBT, String> prevKeys = new HashMap<>();
+		for(String key : prevNBT.getAllKeys())
+			prevKeys.putIfAbsent(prevNBT.get(key), key);
+		
+		CompoundNBT changed = new CompoundNBT();
+		Map<String, String> moved = new HashMap<>();
+		for(String key : nbt.getAllKeys())
+		{
+			INBT tag = nbt.get(key);
+			if(tag.equals(prevNBT.get(key)))
+				continue;
+			
+			String prevKey = prevKeys.get(tag);
+			if(prevKey != null)
+				moved.put(key, prevKey);
+			else changed.put(key, tag);
+		}
+		
+		List<String> removed = new ArrayList<>();
+		for(String key : prevNBT.getAllKeys())
+		{
+			if(!nbt.contains(key))
+				removed.add(key);
+		}
+		
+		return new ModusDataPacket(false, changed, moved, removed);
+	}
+	
+	public boolean hasChanges()
+	{
+		return isFullUpdate || !nbt.isEmpty() || !movedEntries.isEmpty() || !removedEntries.isEmpty();
 	}
 	
 	@Override
 	public void encode(PacketBuffer buffer)
 	{
-		if(nbt != null)
+		buffer.writeBoolean(isFullUpdate);
+		if(!isFullUpdate)
+		{
+			buffer.writeNbt(nbt);
+			buffer.writeVarInt(movedEntries.size());
+			for(Map.Entry<String, String> entry : movedEntries.entrySet())
+			{
+				buffer.writeUtf(entry.getKey());
+				buffer.writeUtf(entry.getValue());
+			}
+			buffer.writeVarInt(removedEntries.size());
+			for(String key : removedEntries)
+				buffer.writeUtf(key);
+		} else if(nbt != null)
 		{
 			try
 			{
@@ -43,6 +114,20 @@ public class ModusDataPacket implements PlayToClientPacket
 	
 	public static ModusDataPacket decode(PacketBuffer buffer)
 	{
+		if(!buffer.readBoolean())
+		{
+			CompoundNBT nbt = buffer.readNbt();
+			int movedSize = buffer.readVarInt();
+			Map<String, String> moved = new HashMap<>();
+			for(int i = 0; i < movedSize; i++)
+				moved.put(buffer.readUtf(32767), buffer.readUtf(32767));
+			int removedSize = buffer.readVarInt();
+			List<String> removed = new ArrayList<>();
+			for(int i = 0; i < removedSize; i++)
+				removed.add(buffer.readUtf(32767));
+			return new ModusDataPacket(false, nbt, moved, removed);
+		}
+		
 		if(buffer.readableBytes() > 0)
 		{
 			byte[] bytes = new byte[buffer.readableBytes()];
@@ -50,12 +135,12 @@ public class ModusDataPacket implements PlayToClientPacket
 			try
 			{
 				CompoundNBT nbt = CompressedStreamTools.readCompressed(new ByteArrayInputStream(bytes));
-				return new ModusDataPacket(nbt);
+				return create(nbt);
 			} catch(IOException e)
 			{
 				throw new IllegalStateException(e);
 			}
-		} else return new ModusDataPacket(null);
+		} else return create(null);
 	}
 	
 	@Override
@@ -64,8 +149,34 @@ public class ModusDataPacket implements PlayToClientPacket
 		ClientPlayerData.handleDataPacket(this);
 	}
 	
-	public CompoundNBT getNBT()
+	public boolean isFullUpdate()
 	{
-		return nbt;
+		return isFullUpdate;
+	}
+	
+	/**
+	 * @return the modus data after applying this packet to the previously received modus data
+	 */
+	@Nullable
+	public CompoundNBT applyTo(@Nullable CompoundNBT prevNBT)
+	{
+		if(isFullUpdate)
+			return nbt;
+		if(prevNBT == null)
+			throw new IllegalStateException("Got modus changes without any previous modus data");
+		
+		Set<String> removed = new HashSet<>(removedEntries);
+		CompoundNBT result = new CompoundNBT();
+		for(String key : prevNBT.getAllKeys())
+		{
+			if(!removed.contains(key))
+				result.put(key, prevNBT.get(key));
+		}
+		for(Map.Entry<String, String> entry : movedEntries.entrySet())
+			result.put(entry.getKey(), Objects.requireNonNull(prevNBT.get(entry.getValue())).copy());
+		for(String key : nbt.getAllKeys())
+			result.put(key, nbt.get(key));
+		
+		return result;
 	}
 }
\ No newline at end of file
@@ -104,7 +104,7 @@ public class Echeladder
 				boondollarsGained += BOONDOLLARS[Math.min(rung, BOONDOLLARS.length - 1)];
 				exp -= (expReq - progress);
 				progress = 0;
-				savedData.setDirty();
+				savedData.setDirty(identifier);
 				expReq = getRungProgressReq();
 				if(rung >= topRung)
 					break increment;
@@ -115,7 +115,7 @@ public class Echeladder
 			if(exp >= 1)
 			{
 				progress += exp;
-				savedData.setDirty();
+				savedData.setDirty(identifier);
 				Debug.debugf("Added remainder exp to progress, which is now at %s", progress);
 			} else
 				Debug.debugf("Remaining exp %s is below 1, and will therefore be ignored", exp);
@@ -141,12 +141,12 @@ public class Echeladder
 		if(type >= UNDERLING_BONUS_OFFSET && type < UNDERLING_BONUS_OFFSET + underlingBonuses.length && !underlingBonuses[type - UNDERLING_BONUS_OFFSET])
 		{
 			underlingBonuses[type - UNDERLING_BONUS_OFFSET] = true;
-			savedData.setDirty();
+			savedData.setDirty(identifier);
 			increaseProgress(UNDERLING_BONUSES[type - UNDERLING_BONUS_OFFSET]);
 		} else if(type >= ALCHEMY_BONUS_OFFSET && type < ALCHEMY_BONUS_OFFSET + alchemyBonuses.length && !alchemyBonuses[type - ALCHEMY_BONUS_OFFSET])
 		{
 			alchemyBonuses[type - ALCHEMY_BONUS_OFFSET] = true;
-			savedData.setDirty();
+			savedData.setDirty(identifier);
 			increaseProgress(ALCHEMY_BONUSES[type - ALCHEMY_BONUS_OFFSET]);
 		}
 	}
@@ -248,7 +248,7 @@ public class Echeladder
 		
 		if(prevProgress != this.progress || prevRung != this.rung)
 		{
-			savedData.setDirty();
+			savedData.setDirty(identifier);
 			ServerPlayerEntity player = identifier.getPlayer(savedData.mcServer);
 			if(player != null && (MinestuckConfig.SERVER.echeladderProgress.get() || prevRung != this.rung))
 			{
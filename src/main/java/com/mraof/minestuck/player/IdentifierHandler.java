@@ -10,10 +10,11 @@ import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.FakePlayer;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Used to encode/decode player usernames, to handle uses with LAN.
@@ -24,8 +25,13 @@ public class IdentifierHandler
 {
 	public static final PlayerIdentifier NULL_IDENTIFIER = new NullIdentifier();
 	
-	private static List<PlayerIdentifier> identifierList = new ArrayList<>();
-	private static int nextIdentifierId;
+	/**
+	 * Each identifier is created once and is then found through these maps, so that there is only one instance for each player.
+	 */
+	private static final Map<UUID, PlayerIdentifier> uuidIdentifiers = new ConcurrentHashMap<>();
+	private static final Map<Integer, PlayerIdentifier> fakeIdentifiers = new ConcurrentHashMap<>();
+	private static final Map<Integer, PlayerIdentifier> identifiersById = new ConcurrentHashMap<>();
+	private static final AtomicInteger nextIdentifierId = new AtomicInteger();
 	private static int fakePlayerIndex = 0;
 	
 	public static PlayerIdentifier encode(PlayerEntity player)
@@ -33,11 +39,22 @@ public class IdentifierHandler
 		if(player instanceof FakePlayer || player.getGameProfile() == null)
 			return null;
 		
-		for(PlayerIdentifier identifier : identifierList)
-			if(identifier.appliesTo(player))
-				return identifier;
-		PlayerIdentifier identifier = new UUIDIdentifier(nextIdentifierId++, player.getGameProfile().getId());
-		identifierList.add(identifier);
+		return getUUIDIdentifier(player.getGameProfile().getId());
+	}
+	
+	private static PlayerIdentifier getUUIDIdentifier(UUID uuid)
+	{
+		return uuidIdentifiers.computeIfAbsent(uuid, key -> register(new UUIDIdentifier(nextIdentifierId.getAndIncrement(), key)));
+	}
+	
+	private static PlayerIdentifier getFakeIdentifier(int count)
+	{
+		return fakeIdentifiers.computeIfAbsent(count, key -> register(new FakeIdentifier(nextIdentifierId.getAndIncrement(), key)));
+	}
+	
+	private static PlayerIdentifier register(PlayerIdentifier identifier)
+	{
+		identifiersById.put(identifier.getId(), identifier);
 		return identifier;
 	}
 	
@@ -49,36 +66,22 @@ public class IdentifierHandler
 	@Nonnull
 	public static PlayerIdentifier load(CompoundNBT nbt, String key)
 	{
-		PlayerIdentifier identifier;
 		String type = nbt.getString(key);
 		switch(type)
 		{
 			case "null":
 				return NULL_IDENTIFIER;
 			case "uuid":
-				identifier = new UUIDIdentifier(nextIdentifierId, nbt.getUUID(key + "_uuid"));
-				break;
+				return getUUIDIdentifier(nbt.getUUID(key + "_uuid"));
 			case "fake":
-				identifier = new FakeIdentifier(nextIdentifierId, nbt.getInt(key+"_count"));
-				break;
+				return getFakeIdentifier(nbt.getInt(key+"_count"));
 			default: throw new IllegalArgumentException("Can't parse identifier type "+type);
 		}
-		
-		for(PlayerIdentifier id : identifierList)
-			if(id.equals(identifier))
-				return id;
-		
-		nextIdentifierId++;
-		identifierList.add(identifier);
-		return identifier;
 	}
 	
 	public static PlayerIdentifier getById(int id)
 	{
-		for(PlayerIdentifier identifier : identifierList)
-			if(identifier.getId() == id)
-				return identifier;
-		return null;
+		return identifiersById.get(id);
 	}
 	
 	/*public static PlayerIdentifier getForCommand(MinecraftServer server, ICommandSender sender, String playerName) throws CommandException
@@ -124,23 +127,20 @@ public class IdentifierHandler
 		}
 	}*/
 	
-	public static PlayerIdentifier createNewFakeIdentifier()
+	public static synchronized PlayerIdentifier createNewFakeIdentifier()
 	{
-		PlayerIdentifier identifier;
-		do
-		{
-			identifier = new FakeIdentifier(nextIdentifierId, fakePlayerIndex++);
-		} while(identifierList.contains(identifier));
+		while(fakeIdentifiers.containsKey(fakePlayerIndex))
+			fakePlayerIndex++;
 		
-		nextIdentifierId++;
-		identifierList.add(identifier);
-		return identifier;
+		return getFakeIdentifier(fakePlayerIndex++);
 	}
 	
-	public static void clear()
+	public static synchronized void clear()
 	{
-		identifierList.clear();
-		nextIdentifierId = 0;
+		uuidIdentifiers.clear();
+		fakeIdentifiers.clear();
+		identifiersById.clear();
+		nextIdentifierId.set(0);
 		fakePlayerIndex = 0;
 	}
 	
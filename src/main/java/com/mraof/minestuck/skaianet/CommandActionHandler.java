@@ -92,7 +92,7 @@ public final class CommandActionHandler
 			clientConnection.setNewServerPlayer(server);
 			if(connection != null && connection.isActive())
 			{
-				skaianet.sessionHandler.getPlayerSession(client).connections.remove(connection);
+				skaianet.sessionHandler.getPlayerSession(client).removeConnection(connection);
 				clientConnection.copyComputerReferences(connection);
 			}
 			updateLandChain |= clientConnection.hasEntered();
@@ -120,6 +120,7 @@ public class ComputerWaitingList
 			{
 				LOGGER.warn("[SKAIANET] Invalid computer in waiting list!");
 				i.remove();
+				infoTracker.markDirty(data.getKey());
 			}
 		}
 	}
@@ -0,0 +1,144 @@
+package com.mraof.minestuck.skaianet;
+
+import com.mraof.minestuck.computer.ComputerReference;
+import com.mraof.minestuck.player.PlayerIdentifier;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of all sburb connections by their client player, server player and server computer, and of the connections that are ready for entry.
+ * Connections are added and removed through {@link Session}, and any change to a connection that affects these keys should be followed by a call to {@link #update}.
+ * Connections moving between sessions through merges and splits do not affect the index.
+ */
+final class ConnectionIndex
+{
+	private final Map<SburbConnection, Keys> indexedKeys = new HashMap<>();
+	private final Map<PlayerIdentifier, List<SburbConnection>> byClient = new HashMap<>();
+	private final Map<PlayerIdentifier, List<SburbConnection>> byServer = new HashMap<>();
+	private final Map<ComputerReference, SburbConnection> byServerComputer = new HashMap<>();
+	private final Set<SburbConnection> inEntry = new LinkedHashSet<>();
+	
+	void rebuild(Stream<SburbConnection> connections)
+	{
+		indexedKeys.clear();
+		byClient.clear();
+		byServer.clear();
+		byServerComputer.clear();
+		inEntry.clear();
+		connections.forEach(this::add);
+	}
+	
+	void add(SburbConnection connection)
+	{
+		if(indexedKeys.containsKey(connection))
+			throw new IllegalStateException("Connection has already been indexed");
+		
+		index(connection);
+	}
+	
+	void remove(SburbConnection connection)
+	{
+		Keys keys = indexedKeys.remove(connection);
+		if(keys != null)
+			unindex(connection, keys);
+	}
+	
+	/**
+	 * Moves the connection to match its current state. Does nothing if the connection isn't part of any session yet.
+	 */
+	void update(SburbConnection connection)
+	{
+		Keys keys = indexedKeys.remove(connection);
+		if(keys != null)
+		{
+			unindex(connection, keys);
+			index(connection);
+		}
+	}
+	
+	private void index(SburbConnection connection)
+	{
+		Keys keys = new Keys(connection);
+		indexedKeys.put(connection, keys);
+		
+		byClient.computeIfAbsent(keys.client, player -> new ArrayList<>(1)).add(connection);
+		if(connection.hasServerPlayer())
+			byServer.computeIfAbsent(keys.server, player -> new ArrayList<>(1)).add(connection);
+		if(keys.serverComputer != null)
+			byServerComputer.put(keys.serverComputer, connection);
+		if(keys.inEntry)
+			inEntry.add(connection);
+	}
+	
+	private void unindex(SburbConnection connection, Keys keys)
+	{
+		removeFrom(byClient, keys.client, connection);
+		removeFrom(byServer, keys.server, connection);
+		if(keys.serverComputer != null)
+			byServerComputer.remove(keys.serverComputer, connection);
+		inEntry.remove(connection);
+	}
+	
+	private static void removeFrom(Map<PlayerIdentifier, List<SburbConnection>> map, PlayerIdentifier player, SburbConnection connection)
+	{
+		List<SburbConnection> list = map.get(player);
+		if(list != null)
+		{
+			list.remove(connection);
+			if(list.isEmpty())
+				map.remove(player);
+		}
+	}
+	
+	List<SburbConnection> getByClient(PlayerIdentifier client)
+	{
+		return byClient.getOrDefault(client, Collections.emptyList());
+	}
+	
+	List<SburbConnection> getByServer(PlayerIdentifier server)
+	{
+		return byServer.getOrDefault(server, Collections.emptyList());
+	}
+	
+	/**
+	 * @return all connections where the player is either the client or the server player
+	 */
+	Collection<SburbConnection> getWithPlayer(PlayerIdentifier player)
+	{
+		List<SburbConnection> asClient = getByClient(player), asServer = getByServer(player);
+		if(asServer.isEmpty())
+			return asClient;
+		Set<SburbConnection> connections = new LinkedHashSet<>(asClient);
+		connections.addAll(asServer);
+		return connections;
+	}
+	
+	SburbConnection getByServerComputer(ComputerReference computer)
+	{
+		return byServerComputer.get(computer);
+	}
+	
+	Set<SburbConnection> getInEntry()
+	{
+		return Collections.unmodifiableSet(inEntry);
+	}
+	
+	/**
+	 * The keys that a connection was indexed with, so that it can be found and removed after the connection has changed.
+	 */
+	private static class Keys
+	{
+		private final PlayerIdentifier client, server;
+		private final ComputerReference serverComputer;
+		private final boolean inEntry;
+		
+		private Keys(SburbConnection connection)
+		{
+			client = connection.getClientIdentifier();
+			server = connection.getServerIdentifier();
+			serverComputer = connection.isActive() ? connection.getServerComputer() : null;
+			inEntry = connection.isActive() && connection.isMain() && !connection.hasEntered();
+		}
+	}
+}
\ No newline at end of file
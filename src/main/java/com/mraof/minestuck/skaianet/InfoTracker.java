@@ -7,6 +7,7 @@ import com.mraof.minestuck.network.MSPacketHandler;
 import com.mraof.minestuck.network.computer.SkaianetInfoPacket;
 import com.mraof.minestuck.player.IdentifierHandler;
 import com.mraof.minestuck.player.PlayerIdentifier;
+import com.mraof.minestuck.skaianet.client.ReducedConnection;
 import com.mraof.minestuck.util.Debug;
 import com.mraof.minestuck.util.LazyInstance;
 import net.minecraft.entity.player.ServerPlayerEntity;
@@ -23,10 +24,11 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Works with the info that will be sent to players through {@link SkaianetInfoPacket}
+ * The info of each player is kept as an immutable snapshot, which is replaced when something has changed.
+ * The snapshot last sent to each listener is remembered, so that listeners only get the differences to what they already have.
  */
 @Mod.EventBusSubscriber(modid = Minestuck.MOD_ID)
 public final class InfoTracker
@@ -35,7 +37,15 @@ public final class InfoTracker
 	
 	private final Map<PlayerIdentifier, Set<PlayerIdentifier>> listenerMap = new HashMap<>();
 	private final Set<PlayerIdentifier> toUpdate = new HashSet<>();
-	private final Map<PlayerIdentifier, Set<Integer>> openedServersCache = new HashMap<>();
+	private final Map<PlayerIdentifier, PlayerInfo> currentInfo = new HashMap<>();
+	/**
+	 * listener -> (player -> the info about the player that was last sent to the listener)
+	 */
+	private final Map<PlayerIdentifier, Map<PlayerIdentifier, PlayerInfo>> sentInfo = new HashMap<>();
+	/**
+	 * Set when something that may affect which servers are available to players has changed
+	 */
+	private boolean serverListsChanged = false;
 	/**
 	 * Chains of lands to be used by the skybox render
 	 */
@@ -63,7 +73,9 @@ public final class InfoTracker
 		{
 			ServerPlayerEntity player = (ServerPlayerEntity) event.getPlayer();
 			PlayerIdentifier identifier = Objects.requireNonNull(IdentifierHandler.encode(player));
-			SkaianetHandler.get(player.server).infoTracker.listenerMap.values().forEach(set -> set.removeIf(identifier::equals));
+			InfoTracker infoTracker = SkaianetHandler.get(player.server).infoTracker;
+			infoTracker.listenerMap.values().forEach(set -> set.removeIf(identifier::equals));
+			infoTracker.sentInfo.remove(identifier);
 		}
 	}
 	
@@ -105,8 +117,10 @@ public final class InfoTracker
 			Debug.warnf("[Skaianet] Player %s already got the requested data.", player.getName());
 		}
 		
-		SkaianetInfoPacket packet = generateClientInfoPacket(p1);
-		MSPacketHandler.sendToPlayer(packet, player);
+		//The client asked for the data, so assume that it has nothing to begin with
+		PlayerInfo info = getInfo(p1);
+		getSentInfo(p0).put(p1, info);
+		MSPacketHandler.sendToPlayer(info.createPacket(p1, null), player);
 	}
 	
 	
@@ -176,6 +190,8 @@ public final class InfoTracker
 	void markDirty(PlayerIdentifier player)
 	{
 		toUpdate.add(player);
+		//Anything that changes info about a player might also change what servers other players are able to connect to
+		serverListsChanged = true;
 	}
 	
 	void markDirty(SburbConnection connection)
@@ -189,10 +205,14 @@ public final class InfoTracker
 	{
 		checkListeners();
 		
-		for(Map.Entry<PlayerIdentifier, Set<Integer>> entry : openedServersCache.entrySet())
+		if(serverListsChanged)
 		{
-			if(!entry.getValue().equals(skaianet.sessionHandler.getServerList(entry.getKey()).keySet()))
-				markDirty(entry.getKey());
+			serverListsChanged = false;
+			for(Map.Entry<PlayerIdentifier, PlayerInfo> entry : currentInfo.entrySet())
+			{
+				if(!entry.getValue().openServers.equals(skaianet.sessionHandler.getServerList(entry.getKey())))
+					toUpdate.add(entry.getKey());
+			}
 		}
 		
 		if(!toUpdate.isEmpty())
@@ -207,7 +227,7 @@ public final class InfoTracker
 	
 	private void sendConnectionInfo(PlayerIdentifier player)
 	{
-		SkaianetInfoPacket packet = generateClientInfoPacket(player);
+		PlayerInfo info = updateInfo(player);
 		
 		for(PlayerIdentifier listener : getSet(player))
 		{
@@ -218,32 +238,54 @@ public final class InfoTracker
 				if(player.equals(listener))
 				{
 					//Trigger advancement if there is an active connection that the player is in
-					skaianet.sessionHandler.getConnectionStream().filter(SburbConnection::isActive).filter(c -> c.hasPlayer(player))
-							.findAny().ifPresent(c -> MSCriteriaTriggers.SBURB_CONNECTION.trigger(playerListener));
+					if(skaianet.connectionIndex.getWithPlayer(player).stream().anyMatch(SburbConnection::isActive))
+						MSCriteriaTriggers.SBURB_CONNECTION.trigger(playerListener);
 				}
 				
-				MSPacketHandler.sendToPlayer(packet, playerListener);
+				PlayerInfo lastSent = getSentInfo(listener).put(player, info);
+				if(lastSent != info)
+					MSPacketHandler.sendToPlayer(info.createPacket(player, lastSent), playerListener);
 			}
 		}
 	}
 	
-	private SkaianetInfoPacket generateClientInfoPacket(PlayerIdentifier player)
+	private Map<PlayerIdentifier, PlayerInfo> getSentInfo(PlayerIdentifier listener)
 	{
-		boolean clientResuming = skaianet.hasResumingClient(player);
-		boolean serverResuming = skaianet.hasResumingServer(player);
-		
-		Map<Integer, String> serverMap = skaianet.sessionHandler.getServerList(player);
-		openedServersCache.put(player, serverMap.keySet());
-		
-		// create list with all connections that the player is in
-		List<SburbConnection> list = skaianet.sessionHandler.getConnectionStream().filter(c -> c.hasPlayer(player)).collect(Collectors.toList());
+		return sentInfo.computeIfAbsent(listener, ignored -> new HashMap<>());
+	}
+	
+	private PlayerInfo getInfo(PlayerIdentifier player)
+	{
+		PlayerInfo info = currentInfo.get(player);
+		return info != null ? info : updateInfo(player);
+	}
+	
+	/**
+	 * Creates new info for the player, but keeps the previous info if nothing has changed.
+	 */
+	private PlayerInfo updateInfo(PlayerIdentifier player)
+	{
+		PlayerInfo info = new PlayerInfo(skaianet.hasResumingClient(player), skaianet.hasResumingServer(player),
+				skaianet.sessionHandler.getServerList(player), skaianet.connectionIndex.getWithPlayer(player));
 		
-		return SkaianetInfoPacket.update(player.getId(), clientResuming, serverResuming, serverMap, list);
+		PlayerInfo previous = currentInfo.get(player);
+		if(info.equals(previous))
+			return previous;
+		currentInfo.put(player, info);
+		return info;
 	}
 	
 	private void checkListeners()
 	{
-		listenerMap.forEach((identifier, set) -> set.removeIf(listener -> cannotAccess(listener.getPlayer(skaianet.mcServer), identifier)));
+		listenerMap.forEach((identifier, set) -> set.removeIf(listener -> {
+			if(cannotAccess(listener.getPlayer(skaianet.mcServer), identifier))
+			{
+				Map<PlayerIdentifier, PlayerInfo> sent = sentInfo.get(listener);
+				if(sent != null)
+					sent.remove(identifier);
+				return true;
+			} else return false;
+		}));
 	}
 	
 	private boolean cannotAccess(ServerPlayerEntity listener, PlayerIdentifier identifier)
@@ -251,4 +293,62 @@ public final class InfoTracker
 		return listener == null || (MinestuckConfig.SERVER.privateComputers.get() && !identifier.appliesTo(listener)
 				&& !listener.hasPermissions(2));
 	}
+	
+	/**
+	 * The info about a player that is sent through {@link SkaianetInfoPacket}. Immutable, so that an instance can be compared by identity with what was previously sent.
+	 */
+	private static class PlayerInfo
+	{
+		private final boolean clientResuming, serverResuming;
+		private final Map<Integer, String> openServers;
+		private final Map<Long, ReducedConnection> connections = new LinkedHashMap<>();
+		
+		private PlayerInfo(boolean clientResuming, boolean serverResuming, Map<Integer, String> openServers, Collection<SburbConnection> connections)
+		{
+			this.clientResuming = clientResuming;
+			this.serverResuming = serverResuming;
+			this.openServers = Collections.unmodifiableMap(openServers);
+			for(SburbConnection connection : connections)
+			{
+				ReducedConnection reduced = ReducedConnection.of(connection);
+				this.connections.put(reduced.getKey(), reduced);
+			}
+		}
+		
+		/**
+		 * @param lastSent the info previously sent to the receiver, or null if the receiver should get all info
+		 */
+		private SkaianetInfoPacket createPacket(PlayerIdentifier player, PlayerInfo lastSent)
+		{
+			if(lastSent == null)
+				return SkaianetInfoPacket.update(player.getId(), clientResuming, serverResuming, openServers, new ArrayList<>(connections.values()));
+			
+			List<ReducedConnection> changed = new ArrayList<>();
+			for(ReducedConnection connection : connections.values())
+			{
+				if(!connection.equals(lastSent.connections.get(connection.getKey())))
+					changed.add(connection);
+			}
+			long[] removed = lastSent.connections.keySet().stream().filter(key -> !connections.containsKey(key)).mapToLong(Long::longValue).toArray();
+			
+			return SkaianetInfoPacket.partialUpdate(player.getId(), clientResuming, serverResuming,
+					openServers.equals(lastSent.openServers) ? null : openServers, changed, removed);
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+			PlayerInfo that = (PlayerInfo) o;
+			return clientResuming == that.clientResuming && serverResuming == that.serverResuming
+					&& openServers.equals(that.openServers) && connections.equals(that.connections);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(clientResuming, serverResuming, openServers, connections);
+		}
+	}
 }
\ No newline at end of file
@@ -10,7 +10,6 @@ import com.mraof.minestuck.item.crafting.alchemy.GristType;
 import com.mraof.minestuck.player.IdentifierHandler;
 import com.mraof.minestuck.player.PlayerIdentifier;
 import com.mraof.minestuck.player.Title;
-import com.mraof.minestuck.skaianet.client.ReducedConnection;
 import com.mraof.minestuck.util.Debug;
 import com.mraof.minestuck.world.MSDimensions;
 import com.mraof.minestuck.world.lands.LandInfo;
@@ -19,7 +18,6 @@ import com.mraof.minestuck.world.storage.PlayerSavedData;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.nbt.StringNBT;
-import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.RegistryKey;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
@@ -165,6 +163,7 @@ public final class SburbConnection
 		clientComputer = connection.getClientComputer();
 		serverComputer = connection.getServerComputer();
 		isActive = true;
+		skaianet.connectionIndex.update(this);
 	}
 	
 	void setActive(ISburbComputer client, ISburbComputer server, ConnectionCreatedEvent.ConnectionType type)
@@ -177,6 +176,7 @@ public final class SburbConnection
 		clientComputer = client.createReference();
 		serverComputer = server.createReference();
 		isActive = true;
+		skaianet.connectionIndex.update(this);
 		skaianet.infoTracker.markDirty(this);
 		
 		client.connected(serverIdentifier, true);
@@ -190,6 +190,7 @@ public final class SburbConnection
 		clientComputer = null;
 		serverComputer = null;
 		isActive = false;
+		skaianet.connectionIndex.update(this);
 		skaianet.infoTracker.markDirty(this);
 	}
 	
@@ -214,6 +215,7 @@ public final class SburbConnection
 	{
 		skaianet.infoTracker.markDirty(this);
 		serverIdentifier = IdentifierHandler.NULL_IDENTIFIER;
+		skaianet.connectionIndex.update(this);
 		skaianet.sessionHandler.onConnectionChainBroken(session);
 	}
 	
@@ -226,6 +228,7 @@ public final class SburbConnection
 		skaianet.sessionHandler.prepareSessionFor(clientIdentifier, server);	//Make sure that it is fine to add the server here session-wise
 		
 		serverIdentifier = Objects.requireNonNull(server);
+		skaianet.connectionIndex.update(this);
 		skaianet.infoTracker.markDirty(this);
 	}
 	
@@ -259,7 +262,10 @@ public final class SburbConnection
 			if(clientComputer.matches(oldComputer))
 				clientComputer = Objects.requireNonNull(newComputer);
 			if(serverComputer.matches(oldComputer))
+			{
 				serverComputer = Objects.requireNonNull(newComputer);
+				skaianet.connectionIndex.update(this);
+			}
 		}
 	}
 	public boolean isMain(){return isMain;}
@@ -272,6 +278,7 @@ public final class SburbConnection
 		if(!isMain)
 		{
 			isMain = true;
+			skaianet.connectionIndex.update(this);
 			skaianet.infoTracker.markDirty(this);
 		}
 	}
@@ -319,6 +326,7 @@ public final class SburbConnection
 		if(hasEntered)
 			throw new IllegalStateException("Can't have entered twice");
 		hasEntered = true;
+		skaianet.connectionIndex.update(this);
 		skaianet.infoTracker.markDirty(this);
 	}
 	public boolean hasGivenItem(DeployEntry item) { return givenItemList.contains(item.getName()); }
@@ -374,19 +382,4 @@ public final class SburbConnection
 		if(other.inventory != null)
 			inventory = other.inventory.copy();
 	}
-	/**
-	 * Writes the connection info needed client-side to a network buffer. Must match with {@link ReducedConnection#read}.
-	 */
-	public void toBuffer(PacketBuffer buffer)
-	{
-		buffer.writeBoolean(isMain);
-		if(isMain){
-			buffer.writeBoolean(isActive);
-			buffer.writeBoolean(hasEntered());
-		}
-		buffer.writeInt(getClientIdentifier().getId());
-		buffer.writeUtf(getClientIdentifier().getUsername(), 16);
-		buffer.writeInt(getServerIdentifier().getId());
-		buffer.writeUtf(getServerIdentifier().getUsername(), 16);
-	}
 }
\ No newline at end of file
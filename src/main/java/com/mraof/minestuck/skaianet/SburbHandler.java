@@ -226,7 +226,7 @@ public final class SburbHandler
 	
 	public static boolean canSelectColor(PlayerIdentifier player, MinecraftServer mcServer)
 	{
-		return SessionHandler.get(mcServer).getConnectionStream().noneMatch(c -> c.getClientIdentifier().equals(player));
+		return SkaianetHandler.get(mcServer).connectionIndex.getByClient(player).isEmpty();
 	}
 	
 	public static boolean hasEntered(ServerPlayerEntity player)
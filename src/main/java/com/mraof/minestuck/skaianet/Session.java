@@ -36,6 +36,13 @@ public final class Session
 	{
 		connections.add(connection);
 		connection.setSession(this);
+		connection.skaianet.connectionIndex.add(connection);
+	}
+	
+	void removeConnection(SburbConnection connection)
+	{
+		if(connections.remove(connection))
+			connection.skaianet.connectionIndex.remove(connection);
 	}
 	
 	void finishMergeOrSplit()
@@ -110,10 +110,10 @@ public abstract class SessionHandler
 		Objects.requireNonNull(s);	//If the connection exists, then there should be a session that contains it
 		if(!connection.isMain())
 		{
-			s.connections.remove(connection);
+			s.removeConnection(connection);
 			onConnectionChainBroken(s);
 		} else if(!normal) {
-			s.connections.remove(connection);
+			s.removeConnection(connection);
 			Optional<SburbConnection> optional = skaianetHandler.getPrimaryConnection(connection.getClientIdentifier(), false);
 			if(optional.isPresent())
 			{
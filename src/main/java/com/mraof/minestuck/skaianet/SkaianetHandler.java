@@ -20,7 +20,6 @@ import net.minecraftforge.common.util.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Comparator;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -42,6 +41,7 @@ public final class SkaianetHandler
 	private static SkaianetHandler INSTANCE;
 	
 	final InfoTracker infoTracker = new InfoTracker(this);
+	final ConnectionIndex connectionIndex = new ConnectionIndex();
 	final ComputerWaitingList openedServers = new ComputerWaitingList(infoTracker, false, "opened server");
 	private final ComputerWaitingList resumingClients = new ComputerWaitingList(infoTracker, true, "resuming client");
 	private final ComputerWaitingList resumingServers = new ComputerWaitingList(infoTracker, false, "resuming server");
@@ -62,6 +62,7 @@ public final class SkaianetHandler
 		else sessions = new DefaultSessionHandler(this, nbt.getList("sessions", Constants.NBT.TAG_COMPOUND));
 		
 		sessionHandler = sessions.getActual();
+		connectionIndex.rebuild(sessionHandler.getConnectionStream());
 		
 		openedServers.read(nbt.getList("serversOpen", Constants.NBT.TAG_COMPOUND));
 		resumingClients.read(nbt.getList("resumingClients", Constants.NBT.TAG_COMPOUND));
@@ -79,8 +80,10 @@ public final class SkaianetHandler
 	 */
 	public SburbConnection getActiveConnection(PlayerIdentifier client)
 	{
-		return sessionHandler.getConnectionStream().filter(SburbConnection::isActive).filter(c -> c.getClientIdentifier().equals(client))
-				.findAny().orElse(null);
+		for(SburbConnection connection : connectionIndex.getByClient(client))
+			if(connection.isActive())
+				return connection;
+		return null;
 	}
 	
 	public Optional<SburbConnection> getPrimaryConnection(PlayerIdentifier player, boolean isClient)
@@ -88,12 +91,16 @@ public final class SkaianetHandler
 		if(player == null || player.equals(IdentifierHandler.NULL_IDENTIFIER))
 			return Optional.empty();
 		
-		Stream<SburbConnection> connections = sessionHandler.getConnectionStream();
-		if(isClient)
-			connections = connections.filter(c -> c.getClientIdentifier().equals(player));
-		else connections = connections.filter(c -> c.getServerIdentifier().equals(player));
+		SburbConnection primary = null;
+		for(SburbConnection c : isClient ? connectionIndex.getByClient(player) : connectionIndex.getByServer(player))
+		{
+			if(c.isMain())
+				return Optional.of(c);
+			else if(primary == null && c.isActive())
+				primary = c;
+		}
 		
-		return connections.filter(c -> c.isMain() || c.isActive()).max(Comparator.comparingInt(c -> c.isMain() ? 1 : 0));
+		return Optional.ofNullable(primary);
 	}
 	
 	public void connectToServer(ISburbComputer computer, PlayerIdentifier server)
@@ -386,8 +393,10 @@ public final class SkaianetHandler
 	
 	public SburbConnection getConnection(PlayerIdentifier client, PlayerIdentifier server)
 	{
-		return sessionHandler.getConnectionStream().filter(c -> c.getClientIdentifier().equals(client) && c.getServerIdentifier().equals(server))
-				.findAny().orElse(null);
+		for(SburbConnection connection : connectionIndex.getByClient(client))
+			if(connection.getServerIdentifier().equals(server))
+				return connection;
+		return null;
 	}
 	
 	boolean hasResumingClient(PlayerIdentifier identifier)
@@ -402,12 +411,13 @@ public final class SkaianetHandler
 	
 	public SburbConnection getServerConnection(ISburbComputer computer)
 	{
-		return sessionHandler.getConnectionStream().filter(c -> c.isServer(computer)).findAny().orElse(null);
+		SburbConnection connection = connectionIndex.getByServerComputer(computer.createReference());
+		return connection != null && connection.isServer(computer) ? connection : null;
 	}
 	
 	public Stream<SburbConnection> getConnectionsInEntry()
 	{
-		return sessionHandler.getConnectionStream().filter(connection -> connection.isActive() && connection.isMain() && !connection.hasEntered());
+		return connectionIndex.getInEntry().stream();
 	}
 	
 	/**
@@ -1,5 +1,6 @@
 package com.mraof.minestuck.skaianet;
 
+import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.MinestuckConfig;
 import com.mraof.minestuck.entity.MSEntityTypes;
 import com.mraof.minestuck.entity.underling.UnderlingEntity;
@@ -7,20 +8,32 @@ import com.mraof.minestuck.event.UnderlingSpawnListEvent;
 import com.mraof.minestuck.item.crafting.alchemy.GristHelper;
 import com.mraof.minestuck.item.crafting.alchemy.GristType;
 import com.mraof.minestuck.world.lands.GristLayerInfo;
+import com.mraof.minestuck.world.MSDimensions;
+import com.mraof.minestuck.world.lands.LandInfo;
+import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.vector.Vector3i;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraft.world.biome.MobSpawnInfo;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A facade for overlooking features surrounding underlings that does or might make use of properties connected to the land or session that the underling is spawned in.
  * Currently generates grist types for underlings and determines the underling spawn weights based on the distance from spawn.
  * Will probably take on generation of prototyping properties once we have that.
  */
+@Mod.EventBusSubscriber(modid = Minestuck.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public final class UnderlingController
 {
 	public static GristType getUnderlingType(UnderlingEntity entity)
@@ -30,20 +43,42 @@ public final class UnderlingController
 				.orElseGet(() -> GristHelper.getPrimaryGrist(entity.getRandom()));
 	}
 	
-	private static final List<MobSpawnInfo.Spawners>[] difficultyList = new List[31];
+	private static final int MAX_DIFFICULTY = 30;
+	private static final Map<RegistryKey<World>, SpawnTable> spawnTables = new ConcurrentHashMap<>();
 	
-	public static List<MobSpawnInfo.Spawners> getUnderlingList(BlockPos pos)
+	public static List<MobSpawnInfo.Spawners> getUnderlingList(ServerWorld world, BlockPos pos)
+	{
+		return spawnTables.computeIfAbsent(world.dimension(), dimension -> new SpawnTable(findSpawn(world))).getSpawners(pos);
+	}
+	
+	private static BlockPos findSpawn(ServerWorld world)
+	{
+		LandInfo info = MSDimensions.getLandInfo(world);
+		return info != null ? info.getSpawn() : world.getSharedSpawnPos();
+	}
+	
+	/**
+	 * Discards all spawn tables, so that they are created again with the current config and event listeners.
+	 */
+	public static void invalidateSpawnTables()
+	{
+		spawnTables.clear();
+	}
+	
+	@SubscribeEvent
+	public static void onResourceReload(AddReloadListenerEvent event)
+	{
+		invalidateSpawnTables();
+	}
+	
+	@SubscribeEvent
+	public static void serverStopped(FMLServerStoppedEvent event)
+	{
+		invalidateSpawnTables();
+	}
+	
+	private static List<MobSpawnInfo.Spawners> createUnderlingList(int difficulty)
 	{
-		
-		BlockPos spawn = new BlockPos(0, 0, 0);//world.getSpawnPoint(); TODO
-		
-		int difficulty = (int) Math.round(Math.sqrt(new Vector3i(pos.getX() >> 4, 0, pos.getZ() >> 4).distSqr(new Vector3i(spawn.getX() >> 4, 0, spawn.getZ() >> 4))));
-		
-		difficulty = Math.min(30, difficulty/3);
-		
-		if(difficultyList[difficulty] != null)
-			return difficultyList[difficulty];
-		
 		ArrayList<MobSpawnInfo.Spawners> list = new ArrayList<>();
 		
 		int impWeight, ogreWeight = 0, basiliskWeight = 0, lichWeight = 0, giclopsWeight = 0;
@@ -85,8 +120,62 @@ public final class UnderlingController
 		
 		MinecraftForge.EVENT_BUS.post(new UnderlingSpawnListEvent(difficulty, list));
 		
-		difficultyList[difficulty] = list;
+		return Collections.unmodifiableList(list);
+	}
+	
+	/**
+	 * The underling spawn lists of a dimension, which depend on the distance in chunks from the spawn of the dimension.
+	 * Both the lists and the difficulty of each chunk are created when first needed, with the difficulties stored by regions of chunks.
+	 */
+	private static class SpawnTable
+	{
+		private static final int REGION_BITS = 5, REGION_SIZE = 1 << REGION_BITS;
+		
+		private final int spawnChunkX, spawnChunkZ;
+		@SuppressWarnings("unchecked")
+		private final List<MobSpawnInfo.Spawners>[] lists = new List[MAX_DIFFICULTY + 1];
+		/**
+		 * For each region, the difficulty plus one of each chunk, or 0 for chunks that have not been looked at yet.
+		 */
+		private final Map<Long, byte[]> regions = new ConcurrentHashMap<>();
 		
-		return list;
+		private SpawnTable(BlockPos spawn)
+		{
+			spawnChunkX = spawn.getX() >> 4;
+			spawnChunkZ = spawn.getZ() >> 4;
+		}
+		
+		private List<MobSpawnInfo.Spawners> getSpawners(BlockPos pos)
+		{
+			int difficulty = getDifficulty(pos.getX() >> 4, pos.getZ() >> 4);
+			
+			List<MobSpawnInfo.Spawners> list = lists[difficulty];
+			if(list == null)
+			{
+				synchronized(this)
+				{
+					list = lists[difficulty];
+					if(list == null)
+						list = lists[difficulty] = createUnderlingList(difficulty);
+				}
+			}
+			return list;
+		}
+		
+		private int getDifficulty(int chunkX, int chunkZ)
+		{
+			byte[] region = regions.computeIfAbsent(ChunkPos.asLong(chunkX >> REGION_BITS, chunkZ >> REGION_BITS), pos -> new byte[REGION_SIZE * REGION_SIZE]);
+			int index = (chunkZ & (REGION_SIZE - 1)) << REGION_BITS | chunkX & (REGION_SIZE - 1);
+			
+			int difficulty = region[index] - 1;
+			if(difficulty < 0)
+			{
+				int xDiff = chunkX - spawnChunkX, zDiff = chunkZ - spawnChunkZ;
+				difficulty = (int) Math.round(Math.sqrt(xDiff * xDiff + zDiff * zDiff));
+				difficulty = Math.min(MAX_DIFFICULTY, difficulty/3);
+				region[index] = (byte) (difficulty + 1);
+			}
+			return difficulty;
+		}
 	}
 }
\ No newline at end of file
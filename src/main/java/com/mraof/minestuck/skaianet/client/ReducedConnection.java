@@ -3,8 +3,11 @@ package com.mraof.minestuck.skaianet.client;
 import com.mraof.minestuck.skaianet.SburbConnection;
 import net.minecraft.network.PacketBuffer;
 
+import java.util.Objects;
+
 /**
- * The client side version of {@link SburbConnection}
+ * The client side version of {@link SburbConnection}.
+ * Also used server-side to keep track of what has been sent to clients.
  */
 public class ReducedConnection
 {
@@ -31,7 +34,53 @@ public class ReducedConnection
 	public boolean hasEntered() {return hasEntered;}
 	
 	/**
-	 * Reads a connection from a network buffer. Must match with {@link SburbConnection#toBuffer}.
+	 * Identifies the connection by its client and server player, which is what the client uses to replace or remove connections on partial updates.
+	 */
+	public long getKey()
+	{
+		return key(clientId, serverId);
+	}
+	
+	public static long key(int clientId, int serverId)
+	{
+		return (long) clientId << 32 | serverId & 0xFFFFFFFFL;
+	}
+	
+	public static ReducedConnection of(SburbConnection connection)
+	{
+		return new ReducedConnection(connection);
+	}
+	
+	private ReducedConnection(SburbConnection connection)
+	{
+		isMain = connection.isMain();
+		isActive = !isMain || connection.isActive();
+		hasEntered = isMain && connection.hasEntered();
+		clientId = connection.getClientIdentifier().getId();
+		clientName = connection.getClientIdentifier().getUsername();
+		serverId = connection.getServerIdentifier().getId();
+		serverName = connection.getServerIdentifier().getUsername();
+	}
+	
+	/**
+	 * Writes the connection info needed client-side to a network buffer. Must match with {@link #read}.
+	 */
+	public void write(PacketBuffer buffer)
+	{
+		buffer.writeBoolean(isMain);
+		if(isMain)
+		{
+			buffer.writeBoolean(isActive);
+			buffer.writeBoolean(hasEntered);
+		}
+		buffer.writeInt(clientId);
+		buffer.writeUtf(clientName, 16);
+		buffer.writeInt(serverId);
+		buffer.writeUtf(serverName, 16);
+	}
+	
+	/**
+	 * Reads a connection from a network buffer. Must match with {@link #write}.
 	 */
 	public static ReducedConnection read(PacketBuffer buffer)
 	{
@@ -55,4 +104,20 @@ public class ReducedConnection
 		serverId = buffer.readInt();
 		serverName = buffer.readUtf(16);
 	}
+	
+	@Override
+	public boolean equals(Object o)
+	{
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+		ReducedConnection that = (ReducedConnection) o;
+		return clientId == that.clientId && serverId == that.serverId && isActive == that.isActive && isMain == that.isMain
+				&& hasEntered == that.hasEntered && clientName.equals(that.clientName) && serverName.equals(that.serverName);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(clientName, serverName, clientId, serverId, isActive, isMain, hasEntered);
+	}
 }
\ No newline at end of file
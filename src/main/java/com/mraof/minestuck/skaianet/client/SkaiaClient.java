@@ -16,10 +16,7 @@ import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Mod.EventBusSubscriber(modid = Minestuck.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
 public class SkaiaClient
@@ -143,13 +140,24 @@ public class SkaiaClient
 		
 		if(playerId == -1)
 			playerId = data.playerId;	//The first info packet is expected to be regarding the receiving player.
-		openServers.put(data.playerId, data.openServers);
+		if(data.openServers != null)
+			openServers.put(data.playerId, data.openServers);
 		
 		resumingClient.put(data.playerId, data.isClientResuming);
 		serverWaiting.put(data.playerId, data.isServerResuming);
 		
-		connections.removeIf(c -> c.getClientId() == data.playerId || c.getServerId() == data.playerId);
-		connections.addAll(data.connectionsTo);
+		if(data.isFullUpdate)
+			connections.removeIf(c -> c.getClientId() == data.playerId || c.getServerId() == data.playerId);
+		else
+		{
+			Set<Long> replacedKeys = new HashSet<>();
+			for(long key : data.removedConnections)
+				replacedKeys.add(key);
+			for(ReducedConnection connection : data.connections)
+				replacedKeys.add(connection.getKey());
+			connections.removeIf(c -> replacedKeys.contains(c.getKey()));
+		}
+		connections.addAll(data.connections);
 		
 		Screen gui = Minecraft.getInstance().screen;
 		if(gui instanceof ComputerScreen)
@@ -5,6 +5,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import net.minecraft.client.resources.JsonReloadListener;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.loot.BinomialRange;
 import net.minecraft.loot.ConstantRange;
@@ -19,6 +20,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 @Mod.EventBusSubscriber(bus = Mod.EventBusSubscriber.Bus.FORGE)
@@ -31,6 +33,16 @@ public class BoondollarPriceManager extends JsonReloadListener
 			.registerTypeAdapter(ConstantRange.class, new ConstantRange.Serializer()).create();
 	
 	private List<BoondollarPricing> pricings;
+	/**
+	 * For each item matched by a pricing without nbt requirements, the pricings that may apply to it in order.
+	 * Built on first use after a reload, since ingredient tags might not be updated when this manager is applied.
+	 */
+	private Map<Item, List<BoondollarPricing>> pricingsByItem;
+	/**
+	 * Pricings that may apply to items that are not in the index, which are those that depend on more than the item.
+	 */
+	private List<BoondollarPricing> unindexedPricings;
+	private final AtomicLong indexHits = new AtomicLong(), indexMisses = new AtomicLong();
 	
 	public BoondollarPriceManager()
 	{
@@ -61,12 +73,72 @@ public class BoondollarPriceManager extends JsonReloadListener
 		}
 		
 		this.pricings = pricings.build();
+		this.pricingsByItem = null;
+		this.unindexedPricings = null;
 		LOGGER.info("Loaded {} boondollar prices", this.pricings.size());
 	}
 	
 	public Optional<Integer> findPrice(ItemStack stack, Random rand)
 	{
-		return pricings.stream().filter(pricing -> pricing.appliesTo(stack)).findAny().map(pricing -> pricing.generatePrice(rand));
+		if(pricingsByItem == null)
+			buildIndex();
+		
+		List<BoondollarPricing> candidates = pricingsByItem.get(stack.getItem());
+		if(candidates != null)
+			indexHits.incrementAndGet();
+		else
+		{
+			indexMisses.incrementAndGet();
+			candidates = unindexedPricings;
+		}
+		
+		for(BoondollarPricing pricing : candidates)
+		{
+			if(pricing.appliesTo(stack))
+				return Optional.of(pricing.generatePrice(rand));
+		}
+		return Optional.empty();
+	}
+	
+	private synchronized void buildIndex()
+	{
+		if(pricingsByItem != null)
+			return;
+		
+		Map<Item, List<BoondollarPricing>> index = new HashMap<>();
+		List<BoondollarPricing> unindexed = new ArrayList<>();
+		for(BoondollarPricing pricing : pricings)
+		{
+			Optional<Set<Item>> items = pricing.getMatchingItems();
+			if(items.isPresent())
+			{
+				for(Item item : items.get())
+				{
+					//Pricings that depend on more than the item and came earlier have priority
+					index.computeIfAbsent(item, i -> new ArrayList<>(unindexed)).add(pricing);
+				}
+			} else
+			{
+				unindexed.add(pricing);
+				for(List<BoondollarPricing> list : index.values())
+					list.add(pricing);
+			}
+		}
+		
+		unindexedPricings = ImmutableList.copyOf(unindexed);
+		pricingsByItem = index;
+		indexHits.set(0);
+		indexMisses.set(0);
+	}
+	
+	/**
+	 * @return the number of indexed items, the number of pricings outside the index, and the number of lookups found and not found in the index
+	 */
+	public long[] getIndexStatistics()
+	{
+		if(pricingsByItem == null)
+			buildIndex();
+		return new long[] {pricingsByItem.size(), unindexedPricings.size(), indexHits.get(), indexMisses.get()};
 	}
 	
 	public static JsonElement parsePrice(BoondollarPricing pricing)
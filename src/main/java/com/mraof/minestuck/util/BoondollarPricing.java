@@ -1,6 +1,7 @@
 package com.mraof.minestuck.util;
 
 import com.google.gson.*;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.Ingredient;
 import net.minecraft.loot.IRandomRange;
@@ -8,7 +9,7 @@ import net.minecraft.loot.RandomRanges;
 import net.minecraft.util.JSONUtils;
 
 import java.lang.reflect.Type;
-import java.util.Random;
+import java.util.*;
 
 public class BoondollarPricing
 {
@@ -31,6 +32,20 @@ public class BoondollarPricing
 		return ingredient.test(stack);
 	}
 	
+	/**
+	 * @return all items that this pricing applies to, or empty if it might depend on more than the item
+	 */
+	public Optional<Set<Item>> getMatchingItems()
+	{
+		if(!ingredient.isVanilla() || !ingredient.isSimple())
+			return Optional.empty();
+		
+		Set<Item> items = new HashSet<>();
+		for(ItemStack stack : ingredient.getItems())
+			items.add(stack.getItem());
+		return Optional.of(items);
+	}
+	
 	public static class Serializer implements JsonDeserializer<BoondollarPricing>, JsonSerializer<BoondollarPricing>
 	{
 		@Override
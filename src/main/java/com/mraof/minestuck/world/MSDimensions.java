@@ -5,6 +5,7 @@ import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.network.MSPacketHandler;
 import com.mraof.minestuck.network.data.LandTypesDataPacket;
 import com.mraof.minestuck.skaianet.SburbConnection;
+import com.mraof.minestuck.world.gen.LandChunkGenerator;
 import com.mraof.minestuck.world.lands.LandInfo;
 import com.mraof.minestuck.world.lands.LandTypePair;
 import com.mraof.minestuck.world.lands.LandTypes;
@@ -14,10 +15,16 @@ import net.minecraft.util.RegistryKey;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -67,7 +74,14 @@ public class MSDimensions
 	
 	public static void updateLandMaps(SburbConnection connection, boolean shouldSendUpdate)
 	{
-		typeToInfoContainer.put(connection.getLandInfo().getDimensionType(), connection.getLandInfo());
+		LandInfo info = connection.getLandInfo();
+		typeToInfoContainer.put(info.getDimensionType(), info);
+		
+		//During server start, the land is bound when its world is loaded instead
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		ServerWorld world = server != null ? server.getLevel(info.getDimensionType()) : null;
+		if(world != null)
+			bindLandGenerator(world, info);
 		
 		if (shouldSendUpdate)
 		{
@@ -75,6 +89,23 @@ public class MSDimensions
 		}
 	}
 	
+	@SubscribeEvent
+	public static void onWorldLoad(WorldEvent.Load event)
+	{
+		if(event.getWorld() instanceof ServerWorld)
+		{
+			ServerWorld world = (ServerWorld) event.getWorld();
+			bindLandGenerator(world, typeToInfoContainer.get(world.dimension()));
+		}
+	}
+	
+	private static void bindLandGenerator(ServerWorld world, @Nullable LandInfo info)
+	{
+		ChunkGenerator generator = world.getChunkSource().getGenerator();
+		if(generator instanceof LandChunkGenerator)
+			((LandChunkGenerator) generator).bind(world, info);
+	}
+	
 	public static void clear()
 	{
 		typeToInfoContainer.clear();
@@ -21,6 +21,7 @@ import net.minecraft.world.gen.settings.NoiseSettings;
 import net.minecraft.world.spawner.WorldEntitySpawner;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -44,6 +45,8 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		
 	});
 	
+	private static final int NOISE_COLUMN_CACHE_SIZE = 4096;
+	
 	// Sections are portions of a chunk, which may contain multiple block
 	// Noise values are generated for sections,
 	// and actual blocks are interpolated between the four neighboring sections
@@ -65,6 +68,8 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 	protected final BlockState defaultFluid;
 	protected final Supplier<DimensionSettings> settings;
 	private final int height;
+	private final NoiseColumnCache noiseColumnCache;
+	private final ThreadLocal<double[][]> noiseScratch;
 	
 	public AbstractChunkGenerator(BiomeProvider provider, BiomeProvider runtimeProvider, long seed, Supplier<DimensionSettings> settings)
 	{
@@ -90,6 +95,8 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		random.consumeCount(2620);
 		depthNoise = new OctavesNoiseGenerator(random, IntStream.rangeClosed(-15, 0));
 		
+		noiseColumnCache = new NoiseColumnCache(NOISE_COLUMN_CACHE_SIZE, sectionCountY + 1, this::fillNoiseColumn);
+		noiseScratch = ThreadLocal.withInitial(() -> new double[4][sectionCountY + 1]);
 	}
 	
 	@Override
@@ -161,14 +168,13 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		int minX = chunkPos.getMinBlockX();
 		int minZ = chunkPos.getMinBlockZ();
 		
-		double[][][] noiseColumns = new double[2][sectionCountXZ + 1][sectionCountY + 1];
+		// Columns come from the shared cache and are only read here
+		double[][][] noiseColumns = new double[2][sectionCountXZ + 1][];
 		
 		for(int sectZ = 0; sectZ < sectionCountXZ; sectZ++)
-		{
-			noiseColumns[0][sectZ] = new double[sectionCountY + 1];
-			fillNoiseColumn(noiseColumns[0][sectZ], chunkX * sectionCountXZ, chunkZ * sectionCountXZ + sectZ);
-			noiseColumns[1][sectZ] = new double[sectionCountY + 1];
-		}
+			noiseColumns[0][sectZ] = noiseColumnCache.get(chunkX * sectionCountXZ, chunkZ * sectionCountXZ + sectZ);
+		// This corner has always been left unfilled for the first row of sections. Kept as is so that terrain stays the same
+		noiseColumns[0][sectionCountXZ] = new double[sectionCountY + 1];
 		
 		Heightmap oceanHeight = chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.OCEAN_FLOOR_WG);
 		Heightmap surfaceHeight = chunk.getOrCreateHeightmapUnprimed(Heightmap.Type.WORLD_SURFACE_WG);
@@ -177,7 +183,7 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		for(int sectX = 0; sectX < sectionCountXZ; sectX++)
 		{
 			for(int sectZ = 0; sectZ < sectionCountXZ + 1; sectZ++)
-				fillNoiseColumn(noiseColumns[1][sectZ], chunkX * sectionCountXZ + sectX + 1, chunkZ * sectionCountXZ + sectZ);
+				noiseColumns[1][sectZ] = noiseColumnCache.get(chunkX * sectionCountXZ + sectX + 1, chunkZ * sectionCountXZ + sectZ);
 			
 			for(int sectZ = 0; sectZ < sectionCountXZ; ++sectZ)
 			{
@@ -284,8 +290,8 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		double modFracX = (double) modX / (double) sectionWidth;
 		double modFracZ = (double) modZ / (double) sectionWidth;
 		double[][] sectNoiseColumns = new double[][]{
-				makeAndFillNoiseColumn(sectX, sectZ), makeAndFillNoiseColumn(sectX, sectZ + 1),
-				makeAndFillNoiseColumn(sectX + 1, sectZ), makeAndFillNoiseColumn(sectX + 1, sectZ + 1)};
+				noiseColumnCache.get(sectX, sectZ), noiseColumnCache.get(sectX, sectZ + 1),
+				noiseColumnCache.get(sectX + 1, sectZ), noiseColumnCache.get(sectX + 1, sectZ + 1)};
 		
 		for(int sectY = sectionCountY - 1; sectY >= 0; sectY--)
 		{
@@ -326,12 +332,13 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 			return Blocks.AIR.defaultBlockState();
 	}
 	
-	
-	private double[] makeAndFillNoiseColumn(int sectionX, int sectionZ)
+	/**
+	 * Cache of the noise columns filled by {@link #fillNoiseColumn(double[], int, int)},
+	 * shared between chunk generation and height queries.
+	 */
+	public NoiseColumnCache getNoiseColumnCache()
 	{
-		double[] column = new double[sectionCountY + 1];
-		fillNoiseColumn(column, sectionX, sectionZ);
-		return column;
+		return noiseColumnCache;
 	}
 	
 	protected void fillNoiseColumn(double[] column, int sectX, int sectZ)
@@ -387,9 +394,11 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		double densityFactor = settings.densityFactor();
 		double densityOffset = settings.densityOffset();
 		
+		sampleAndClampNoiseColumn(column, sectX, sectZ, xzScale, yScale, xzFactor, yFactor);
+		
 		for(int sectY = 0; sectY <= sectionCountY; sectY++)
 		{
-			double noise = sampleAndClampNoise(sectX, sectY, sectZ, xzScale, yScale, xzFactor, yFactor);
+			double noise = column[sectY];
 			
 			// modify noise value based on height and biome values
 			double heightDensity = 1 - 2 * (sectY / (double) sectionCountY) + randomDensity;
@@ -428,26 +437,45 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 		return scaledNoise < 0.0D ? scaledNoise * 17 / 256D / 7D : Math.min(scaledNoise, 1) * 17 / 2560D;
 	}
 	
-	private double sampleAndClampNoise(int sectX, int sectY, int sectZ, double scaleXZ, double scaleY, double factorXZ, double factorY)
+	/**
+	 * Samples the noise for every section in the column, and stores the clamped result in the given array.
+	 * The noise generators are iterated one octave at a time over the whole column,
+	 * which adds up the octaves for each section in the same order as sampling them one section at a time would.
+	 */
+	private void sampleAndClampNoiseColumn(double[] column, int sectX, int sectZ, double scaleXZ, double scaleY, double factorXZ, double factorY)
 	{
-		double minNoise = 0;
-		double maxNoise = 0;
-		double mainNoise = 0;
+		double[][] scratch = noiseScratch.get();
+		double[] minNoise = scratch[0];
+		double[] maxNoise = scratch[1];
+		double[] mainNoise = scratch[2];
+		double[] scaledY = scratch[3];
+		int columnSize = sectionCountY + 1;
+		Arrays.fill(minNoise, 0, columnSize, 0);
+		Arrays.fill(maxNoise, 0, columnSize, 0);
+		Arrays.fill(mainNoise, 0, columnSize, 0);
 		double layerScale = 1;
 		
 		for(int layer = 0; layer < 16; layer++)
 		{
 			double scaledX = OctavesNoiseGenerator.wrap(sectX * scaleXZ * layerScale);
-			double scaledY = OctavesNoiseGenerator.wrap(sectY * scaleY * layerScale);
 			double scaledZ = OctavesNoiseGenerator.wrap(sectZ * scaleXZ * layerScale);
 			double lScaleY = scaleY * layerScale;
+			for(int sectY = 0; sectY < columnSize; sectY++)
+				scaledY[sectY] = OctavesNoiseGenerator.wrap(sectY * scaleY * layerScale);
+			
 			ImprovedNoiseGenerator noiseGen = this.minLimitPerlinNoise.getOctaveNoise(layer);
 			if(noiseGen != null)
-				minNoise += noiseGen.noise(scaledX, scaledY, scaledZ, lScaleY, sectY * lScaleY) / layerScale;
+			{
+				for(int sectY = 0; sectY < columnSize; sectY++)
+					minNoise[sectY] += noiseGen.noise(scaledX, scaledY[sectY], scaledZ, lScaleY, sectY * lScaleY) / layerScale;
+			}
 			
 			noiseGen = this.maxLimitPerlinNoise.getOctaveNoise(layer);
 			if(noiseGen != null)
-				maxNoise += noiseGen.noise(scaledX, scaledY, scaledZ, lScaleY, sectY * lScaleY) / layerScale;
+			{
+				for(int sectY = 0; sectY < columnSize; sectY++)
+					maxNoise[sectY] += noiseGen.noise(scaledX, scaledY[sectY], scaledZ, lScaleY, sectY * lScaleY) / layerScale;
+			}
 			
 			if(layer < 8)
 			{
@@ -455,16 +483,21 @@ public abstract class AbstractChunkGenerator extends ChunkGenerator
 				if(noiseGen != null)
 				{
 					double fScaledX = OctavesNoiseGenerator.wrap(sectX * factorXZ * layerScale);
-					double fScaledY = OctavesNoiseGenerator.wrap(sectY * factorY * layerScale);
 					double fScaledZ = OctavesNoiseGenerator.wrap(sectZ * factorXZ * layerScale);
-					mainNoise += noiseGen.noise(fScaledX, fScaledY, fScaledZ, factorY * layerScale, sectY * factorY * layerScale) / layerScale;
+					double fScaleY = factorY * layerScale;
+					for(int sectY = 0; sectY < columnSize; sectY++)
+					{
+						double fScaledY = OctavesNoiseGenerator.wrap(sectY * factorY * layerScale);
+						mainNoise[sectY] += noiseGen.noise(fScaledX, fScaledY, fScaledZ, fScaleY, sectY * factorY * layerScale) / layerScale;
+					}
 				}
 			}
 			
 			layerScale /= 2;
 		}
 		
-		return MathHelper.clampedLerp(minNoise / 512.0D, maxNoise / 512.0D, (mainNoise / 10.0D + 1.0D) / 2.0D);
+		for(int sectY = 0; sectY < columnSize; sectY++)
+			column[sectY] = MathHelper.clampedLerp(minNoise[sectY] / 512.0D, maxNoise[sectY] / 512.0D, (mainNoise[sectY] / 10.0D + 1.0D) / 2.0D);
 	}
 	
 	@Override
@@ -10,6 +10,7 @@ import com.mraof.minestuck.world.biome.gen.LandBiomeProvider;
 import com.mraof.minestuck.world.gen.feature.MSFeatures;
 import com.mraof.minestuck.world.gen.feature.structure.GateStructure;
 import com.mraof.minestuck.world.gen.feature.structure.blocks.StructureBlockRegistry;
+import com.mraof.minestuck.world.lands.LandInfo;
 import com.mraof.minestuck.world.lands.LandProperties;
 import com.mraof.minestuck.world.lands.LandTypePair;
 import net.minecraft.entity.EntityClassification;
@@ -28,6 +29,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -47,7 +49,11 @@ public class LandChunkGenerator extends AbstractChunkGenerator
 	public final GateStructure.PieceFactory gatePiece;
 	private final Registry<Biome> registry;
 	
-	private ChunkPos landGatePosition;
+	private volatile ChunkPos landGatePosition;
+	// Set on the main thread when the land is loaded or its land info is registered, so that worldgen threads only need to read them
+	private volatile ServerWorld world;
+	@Nullable
+	private volatile LandInfo landInfo;
 	
 	public LandChunkGenerator(long seed, LandTypePair landTypes, Registry<Biome> registry)
 	{
@@ -93,8 +99,10 @@ public class LandChunkGenerator extends AbstractChunkGenerator
 	public List<MobSpawnInfo.Spawners> getMobsAt(Biome biome, StructureManager structures, EntityClassification classification, BlockPos pos)
 	{
 		if(classification == MSEntityTypes.UNDERLING)
-			return UnderlingController.getUnderlingList(pos);
-		else return biomes.getBiomeFromBase(biome).getMobSettings().getMobs(classification);
+		{
+			ServerWorld world = getWorld();
+			return world != null ? UnderlingController.getUnderlingList(world, pos) : Collections.emptyList();
+		} else return biomes.getBiomeFromBase(biome).getMobSettings().getMobs(classification);
 	}
 	
 	@Nullable
@@ -114,11 +122,65 @@ public class LandChunkGenerator extends AbstractChunkGenerator
 		return seed;
 	}
 	
+	/**
+	 * @return the world that this chunk generator belongs to, or null if it hasn't been loaded yet
+	 */
+	@Nullable
+	private ServerWorld getWorld()
+	{
+		return world;
+	}
+	
+	/**
+	 * Connects this generator with the world and land info that it belongs to. Should only be called on the main thread.
+	 * A gate position found before the land info was available is stored with the land info here.
+	 */
+	public synchronized void bind(ServerWorld world, @Nullable LandInfo info)
+	{
+		this.world = world;
+		if(info != null)
+		{
+			if(info.getGateChunk() == null && landGatePosition != null)
+				info.setGateChunk(landGatePosition);
+			this.landInfo = info;
+		}
+	}
+	
+	/**
+	 * Returns the chunk that the land gate should be placed in.
+	 * The position is searched for once, and then stored with the land info so that it is kept between server restarts.
+	 * Safe to call from worldgen threads.
+	 */
 	public ChunkPos getOrFindLandGatePosition()
 	{
-		if (landGatePosition != null)
-			return landGatePosition;
+		ChunkPos gatePosition = landGatePosition;
+		if(gatePosition != null)
+			return gatePosition;
+		
+		synchronized(this)
+		{
+			gatePosition = landGatePosition;
+			if(gatePosition == null)
+			{
+				LandInfo info = landInfo;
+				if(info != null)
+					gatePosition = info.getGateChunk();
+				
+				if(gatePosition == null)
+				{
+					gatePosition = findLandGatePosition();
+					if(info != null)
+						info.setGateChunk(gatePosition);
+				}
+				landGatePosition = gatePosition;
+			}
+		}
 		
+		return gatePosition;
+	}
+	
+	private ChunkPos findLandGatePosition()
+	{
 		Random worldRand = new Random(seed);
 		
 		double angle = 2 * Math.PI * worldRand.nextDouble();
@@ -145,9 +207,7 @@ public class LandChunkGenerator extends AbstractChunkGenerator
 		BlockPos pos = getBiomeSource().findBiomeHorizontal((posX << 4) + 8, 0, (posZ << 4) + 8, 96, biome -> biome == normalBiome, worldRand);
 		
 		if(pos != null)
-			landGatePosition = new ChunkPos(pos);
-		else landGatePosition = new ChunkPos(posX, posZ);
-		
-		return landGatePosition;
+			return new ChunkPos(pos);
+		else return new ChunkPos(posX, posZ);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.mraof.minestuck.world.gen;
+
+import net.minecraft.util.math.ChunkPos;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of filled noise columns, keyed by noise section x and z.
+ * Safe to use from several worldgen threads at once. The least recently used columns are evicted first.
+ * Columns returned by the cache are shared, and must not be modified by the caller.
+ */
+public final class NoiseColumnCache
+{
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int SEGMENT_BITS = 4;
+	private static final long LOG_INTERVAL = 1 << 16;
+	
+	private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+	private final int columnSize;
+	private final ColumnFiller filler;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	public NoiseColumnCache(int capacity, int columnSize, ColumnFiller filler)
+	{
+		this.columnSize = columnSize;
+		this.filler = filler;
+		int segmentCapacity = Math.max(1, capacity >> SEGMENT_BITS);
+		for(int i = 0; i < segments.length; i++)
+			segments[i] = new Segment(segmentCapacity);
+	}
+	
+	/**
+	 * Returns the filled noise column for the given section, filling it first if it isn't cached.
+	 * The returned array must be treated as read-only.
+	 */
+	public double[] get(int sectX, int sectZ)
+	{
+		long key = ChunkPos.asLong(sectX, sectZ);
+		Segment segment = segments[Long.hashCode(key) * 0x9E3779B9 >>> (32 - SEGMENT_BITS)];
+		
+		double[] column;
+		synchronized(segment)
+		{
+			column = segment.get(key);
+		}
+		if(column != null)
+		{
+			hits.increment();
+			return column;
+		}
+		
+		// Filled outside the lock, so that other threads may use the segment meanwhile.
+		// Two threads may end up filling the same column, but they will produce the same values.
+		column = new double[columnSize];
+		filler.fill(column, sectX, sectZ);
+		
+		double[] previous;
+		synchronized(segment)
+		{
+			previous = segment.putIfAbsent(key, column);
+		}
+		
+		misses.increment();
+		if(misses.sum() % LOG_INTERVAL == 0)
+			LOGGER.debug("Noise column cache statistics: {}", this);
+		
+		return previous != null ? previous : column;
+	}
+	
+	public void clear()
+	{
+		for(Segment segment : segments)
+		{
+			synchronized(segment)
+			{
+				segment.clear();
+			}
+		}
+	}
+	
+	public long getHits()
+	{
+		return hits.sum();
+	}
+	
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+	
+	public long getEvictions()
+	{
+		return evictions.sum();
+	}
+	
+	public double getHitRate()
+	{
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups > 0 ? (double) hits / lookups : 0;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions", getHits(), getMisses(), getHitRate() * 100, getEvictions());
+	}
+	
+	@FunctionalInterface
+	public interface ColumnFiller
+	{
+		void fill(double[] column, int sectX, int sectZ);
+	}
+	
+	private class Segment extends LinkedHashMap<Long, double[]>
+	{
+		private final int capacity;
+		
+		private Segment(int capacity)
+		{
+			super(16, 0.75F, true);
+			this.capacity = capacity;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest)
+		{
+			if(size() > capacity)
+			{
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
\ No newline at end of file
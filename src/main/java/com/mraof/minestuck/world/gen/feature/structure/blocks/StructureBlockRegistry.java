@@ -13,6 +13,7 @@ import net.minecraft.world.gen.feature.OreFeatureConfig;
 import net.minecraft.world.gen.feature.template.RuleTest;
 import net.minecraft.world.gen.surfacebuilders.SurfaceBuilderConfig;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -150,6 +151,9 @@ public final class StructureBlockRegistry
 	//Nonstatic stuff
 	private final Map<String, BlockState> blockRegistry = new HashMap<>();
 	private RuleTest groundType = OreFeatureConfig.FillerBlockType.NATURAL_STONE;
+	// Resolved template states indexed by state id, with null for states that aren't template states. Built when first needed
+	@Nullable
+	private volatile BlockState[] templateStates;
 	
 	public void setBlockState(String name, BlockState state)
 	{
@@ -163,6 +167,7 @@ public final class StructureBlockRegistry
 			throw new IllegalArgumentException("Should use setGroundState() for setting the ground block.");
 		
 		blockRegistry.put(name, state);
+		templateStates = null;
 	}
 	
 	public void setGroundState(BlockState state, RuleTest groundType)
@@ -172,6 +177,7 @@ public final class StructureBlockRegistry
 		
 		blockRegistry.put("ground", state);
 		this.groundType = groundType;
+		templateStates = null;
 	}
 	
 	public BlockState getBlockState(String name)
@@ -209,6 +215,35 @@ public final class StructureBlockRegistry
 	}
 	
 	public BlockState getTemplateState(BlockState state)
+	{
+		BlockState[] templateStates = this.templateStates;
+		if(templateStates == null)
+			this.templateStates = templateStates = resolveTemplateStates();
+		
+		int id = Block.getId(state);
+		if(id >= 0 && id < templateStates.length)
+		{
+			BlockState newState = templateStates[id];
+			return newState != null ? newState : state;
+		} else return resolveTemplateState(state);
+	}
+	
+	private BlockState[] resolveTemplateStates()
+	{
+		BlockState[] templateStates = new BlockState[Block.BLOCK_STATE_REGISTRY.size()];
+		for(Block block : templateBlockMap.keySet())
+		{
+			for(BlockState state : block.getStateDefinition().getPossibleStates())
+			{
+				int id = Block.getId(state);
+				if(id >= 0 && id < templateStates.length)
+					templateStates[id] = resolveTemplateState(state);
+			}
+		}
+		return templateStates;
+	}
+	
+	private BlockState resolveTemplateState(BlockState state)
 	{
 		if(templateBlockMap.containsKey(state.getBlock()))
 		{
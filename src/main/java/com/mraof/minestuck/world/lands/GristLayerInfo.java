@@ -14,16 +14,17 @@ import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.World;
 import net.minecraft.world.gen.ChunkGenerator;
 import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Containers for grist layers.
@@ -40,7 +41,8 @@ public class GristLayerInfo
 	
 	private static final Logger LOGGER = LogManager.getLogger();
 	
-	private static final Map<RegistryKey<World>, GristLayerInfo> infoByWorldMap = new HashMap<>();
+	// Worlds without grist layers are kept as empty optionals, so that they don't need to be checked again
+	private static final Map<RegistryKey<World>, Optional<GristLayerInfo>> infoByWorldMap = new ConcurrentHashMap<>();
 	
 	@SubscribeEvent
 	public static void serverStopped(FMLServerStoppedEvent event)
@@ -48,6 +50,13 @@ public class GristLayerInfo
 		infoByWorldMap.clear();
 	}
 	
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event)
+	{
+		if(event.getWorld() instanceof ServerWorld)
+			infoByWorldMap.remove(((ServerWorld) event.getWorld()).dimension());
+	}
+	
 	private static Optional<GristLayerInfo> initAndGetGristLayer(ServerWorld world)
 	{
 		ChunkGenerator generator = world.getChunkSource().getGenerator();
@@ -65,19 +74,22 @@ public class GristLayerInfo
 				baseType = GristTypes.AMBER.get();
 			}
 			
-			GristLayerInfo info = new GristLayerInfo(seed, baseType);
-			infoByWorldMap.put(world.dimension(), info);
-			return Optional.of(info);
+			return Optional.of(new GristLayerInfo(seed, baseType));
 		} else
 			return Optional.empty();
 	}
 	
 	public static Optional<GristLayerInfo> get(ServerWorld world)
 	{
-		if (infoByWorldMap.containsKey(world.dimension()))
-			return Optional.ofNullable(infoByWorldMap.get(world.dimension()));
-		else
-			return initAndGetGristLayer(world);
+		Optional<GristLayerInfo> info = infoByWorldMap.get(world.dimension());
+		if (info == null)
+		{
+			Optional<GristLayerInfo> newInfo = initAndGetGristLayer(world);
+			info = infoByWorldMap.putIfAbsent(world.dimension(), newInfo);
+			if (info == null)
+				info = newInfo;
+		}
+		return info;
 	}
 	
 	private final GristTypeLayer anyGristLayer, commonGristLayer, uncommonGristLayer;
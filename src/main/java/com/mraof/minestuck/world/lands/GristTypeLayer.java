@@ -2,7 +2,9 @@ package com.mraof.minestuck.world.lands;
 
 import com.mraof.minestuck.item.crafting.alchemy.GristType;
 import com.mraof.minestuck.item.crafting.alchemy.GristTypes;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import net.minecraft.util.WeightedRandom;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.gen.INoiseRandom;
 import net.minecraft.world.gen.LazyAreaLayerContext;
 import net.minecraft.world.gen.area.IAreaFactory;
@@ -10,36 +12,81 @@ import net.minecraft.world.gen.area.LazyArea;
 import net.minecraft.world.gen.layer.LayerUtil;
 import net.minecraft.world.gen.layer.ZoomLayer;
 import net.minecraft.world.gen.layer.traits.IAreaTransformer0;
-import net.minecraftforge.registries.ForgeRegistry;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
+/**
+ * A layer of grist types over a land.
+ * The layer is computed in tiles of 64x64 blocks, and the most recently computed tiles are kept for later lookups.
+ * That is enough to cover the area that underlings spawn in around a few players, while only using 4 KiB per tile.
+ * Lookups of already computed tiles are lock-free, while the computation of new tiles is synchronized,
+ * as the underlying area is not thread-safe.
+ */
 public class GristTypeLayer
 {
+	private static final int TILE_BITS = 6;
+	private static final int TILE_SIZE = 1 << TILE_BITS;
+	private static final int TILE_MASK = TILE_SIZE - 1;
+	private static final int MAX_TILES = 32;
+	
 	private final LazyArea area;
+	private final GristType[] palette;
+	// Replaced instead of modified, so that readers never see a map that is being changed
+	private volatile Long2ObjectLinkedOpenHashMap<byte[]> tiles = new Long2ObjectLinkedOpenHashMap<>();
 	
-	private GristTypeLayer(LazyArea area)
+	private GristTypeLayer(LazyArea area, GristType[] palette)
 	{
 		this.area = area;
+		this.palette = palette;
 	}
 	
 	public static GristTypeLayer createLayer(GristType.SpawnCategory category, int index, long seed, int zoomLevel, @Nullable GristType baseType)
 	{
 		LongFunction<LazyAreaLayerContext> layerContextCreator = modifier -> new LazyAreaLayerContext(25, seed, modifier + index);
 		
-		IAreaFactory<LazyArea> layer = new BaseLayer(category, baseType).run(layerContextCreator.apply(250L));
+		BaseLayer baseLayer = new BaseLayer(category, baseType);
+		IAreaFactory<LazyArea> layer = baseLayer.run(layerContextCreator.apply(250L));
 		layer = LayerUtil.zoom(2000L, ZoomLayer.NORMAL, layer, zoomLevel, layerContextCreator);
 		
-		return new GristTypeLayer(layer.make());
+		return new GristTypeLayer(layer.make(), baseLayer.palette.toArray(new GristType[0]));
 	}
 	
 	public GristType getTypeAt(int posX, int posZ)
 	{
-		int gristId = area.get(posX, posZ);
-		return ((ForgeRegistry<GristType>) GristTypes.getRegistry()).getValue(gristId);
+		byte[] tile = getTile(posX >> TILE_BITS, posZ >> TILE_BITS);
+		return palette[tile[(posZ & TILE_MASK) << TILE_BITS | (posX & TILE_MASK)] & 0xFF];
+	}
+	
+	private byte[] getTile(int tileX, int tileZ)
+	{
+		byte[] tile = tiles.get(ChunkPos.asLong(tileX, tileZ));
+		return tile != null ? tile : computeTile(tileX, tileZ);
+	}
+	
+	private synchronized byte[] computeTile(int tileX, int tileZ)
+	{
+		long key = ChunkPos.asLong(tileX, tileZ);
+		byte[] tile = tiles.get(key);
+		if(tile != null)
+			return tile;
+		
+		tile = new byte[TILE_SIZE * TILE_SIZE];
+		int minX = tileX << TILE_BITS, minZ = tileZ << TILE_BITS;
+		for(int z = 0; z < TILE_SIZE; z++)
+			for(int x = 0; x < TILE_SIZE; x++)
+				tile[z << TILE_BITS | x] = (byte) area.get(minX + x, minZ + z);
+		
+		Long2ObjectLinkedOpenHashMap<byte[]> newTiles = new Long2ObjectLinkedOpenHashMap<>(tiles);
+		if(newTiles.size() >= MAX_TILES)
+			newTiles.removeFirst();
+		newTiles.put(key, tile);
+		tiles = newTiles;
+		
+		return tile;
 	}
 	
 	private static class BaseLayer implements IAreaTransformer0
@@ -47,14 +94,35 @@ public class GristTypeLayer
 		final List<GristEntry> gristTypes;
 		final int weightSum;
 		
+		// Values produced by this layer are indices in this list
+		final List<GristType> palette = new ArrayList<>();
 		final int baseGristType;
 		
 		public BaseLayer(GristType.SpawnCategory category, @Nullable GristType type)
 		{
-			this.baseGristType = type == null ? -1 : ((ForgeRegistry<GristType>) GristTypes.getRegistry()).getID(type);
 			gristTypes = GristTypes.values().stream().filter(GristType::isUnderlingType)
-					.filter(gristType -> gristType.isInCategory(category)).map(GristEntry::new).collect(Collectors.toList());
+					.filter(gristType -> gristType.isInCategory(category)).map(this::createEntry).collect(Collectors.toList());
 			weightSum = WeightedRandom.getTotalWeight(gristTypes);
+			this.baseGristType = type == null ? -1 : paletteIndex(type);
+			
+			if(palette.size() > 256)
+				throw new IllegalStateException("Too many grist types to fit in a grist layer: " + palette.size());
+		}
+		
+		private GristEntry createEntry(GristType type)
+		{
+			return new GristEntry(type, paletteIndex(type));
+		}
+		
+		private int paletteIndex(GristType type)
+		{
+			int index = palette.indexOf(type);
+			if(index == -1)
+			{
+				index = palette.size();
+				palette.add(type);
+			}
+			return index;
 		}
 		
 		@Override
@@ -63,17 +131,17 @@ public class GristTypeLayer
 			if(baseGristType != -1 && x * x + z * z <= 1)
 				return baseGristType;
 			
-			return WeightedRandom.getWeightedItem(gristTypes, context.nextRandom(weightSum)).gristId;
+			return WeightedRandom.getWeightedItem(gristTypes, context.nextRandom(weightSum)).paletteIndex;
 		}
 		
 		private static class GristEntry extends WeightedRandom.Item
 		{
-			private final int gristId;
+			private final int paletteIndex;
 			
-			public GristEntry(GristType type)
+			public GristEntry(GristType type, int paletteIndex)
 			{
 				super(Math.round(type.getRarity() * 100));
-				this.gristId = ((ForgeRegistry<GristType>) GristTypes.getRegistry()).getID(type);
+				this.paletteIndex = paletteIndex;
 			}
 		}
 	}
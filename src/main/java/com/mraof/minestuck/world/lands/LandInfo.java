@@ -9,6 +9,7 @@ import net.minecraft.util.RegistryKey;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.World;
@@ -37,6 +38,8 @@ public class LandInfo
 	private final int terrainNameIndex, titleNameIndex;
 	@Nullable
 	private BlockPos gatePos = null;
+	@Nullable
+	private volatile ChunkPos gateChunk = null;
 	private int spawnY = -1;
 	@Nullable
 	private LandTypePair cachedAspects;
@@ -94,6 +97,21 @@ public class LandInfo
 		gatePos = pos;
 	}
 	
+	/**
+	 * The chunk that the land gate structure is generated in, as found by the land chunk generator.
+	 * Kept here so that the search only needs to be done once for each land.
+	 */
+	@Nullable
+	public ChunkPos getGateChunk()
+	{
+		return gateChunk;
+	}
+	
+	public void setGateChunk(ChunkPos pos)
+	{
+		gateChunk = pos;
+	}
+	
 	/**
 	 * Should NOT be called during a very early loading stage (such as when reading data through {@link com.mraof.minestuck.MSWorldPersistenceHook}).
 	 * Because world persistence is loaded alongside world-specific registries, there's not a guarrantee that it is loaded and ready before skaianet is loading data.
@@ -145,6 +163,12 @@ public class LandInfo
 			nbt.putInt("gate_y", gatePos.getY());
 			nbt.putInt("gate_z", gatePos.getZ());
 		}
+		ChunkPos gateChunk = this.gateChunk;
+		if(gateChunk != null)
+		{
+			nbt.putInt("gate_chunk_x", gateChunk.x);
+			nbt.putInt("gate_chunk_z", gateChunk.z);
+		}
 		nbt.putInt("spawn_y", spawnY);
 		
 		return nbt;
@@ -164,6 +188,10 @@ public class LandInfo
 		{
 			info.gatePos = new BlockPos(nbt.getInt("gate_x"), nbt.getInt("gate_y"), nbt.getInt("gate_z"));
 		}
+		if(nbt.contains("gate_chunk_x", Constants.NBT.TAG_ANY_NUMERIC))
+		{
+			info.gateChunk = new ChunkPos(nbt.getInt("gate_chunk_x"), nbt.getInt("gate_chunk_z"));
+		}
 		info.spawnY = nbt.getInt("spawn_y");
 		
 		return info;
@@ -11,6 +11,7 @@ import com.mraof.minestuck.network.MSPacketHandler;
 import com.mraof.minestuck.network.data.*;
 import com.mraof.minestuck.player.Title;
 import com.mraof.minestuck.util.ColorHandler;
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -28,6 +29,7 @@ public class ClientPlayerData
 	private static final Logger LOGGER = LogManager.getLogger();
 	
 	private static Modus modus;
+	private static CompoundNBT modusNBT;
 	private static Title title;
 	private static int rung;
 	private static float rungProgress;
@@ -43,6 +45,7 @@ public class ClientPlayerData
 	public static void onLoggedIn(ClientPlayerNetworkEvent.LoggedInEvent event)
 	{
 		modus = null;
+		modusNBT = null;
 		title = null;
 		rung = -1;
 		playerColor = -1;
@@ -115,7 +118,13 @@ public class ClientPlayerData
 	
 	public static void handleDataPacket(ModusDataPacket packet)
 	{
-		modus = CaptchaDeckHandler.readFromNBT(packet.getNBT(), null);
+		if(!packet.isFullUpdate() && modusNBT == null)
+		{
+			LOGGER.warn("Got modus changes without having received any modus data");
+			return;
+		}
+		modusNBT = packet.applyTo(modusNBT);
+		modus = CaptchaDeckHandler.readFromNBT(modusNBT, null);
 		if(modus != null)
 			MSScreenFactories.updateSylladexScreen();
 		else LOGGER.debug("Player lost their modus after update packet");
@@ -2,7 +2,11 @@ package com.mraof.minestuck.world.storage;
 
 import com.mraof.minestuck.Minestuck;
 import com.mraof.minestuck.computer.editmode.EditData;
+import com.mraof.minestuck.entity.DecoyEntity;
 import com.mraof.minestuck.entry.PostEntryTask;
+import com.mraof.minestuck.player.PlayerIdentifier;
+import com.mraof.minestuck.skaianet.SburbConnection;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.server.MinecraftServer;
@@ -30,6 +34,13 @@ public class MSExtraData extends WorldSavedData
 	private static final String DATA_NAME = Minestuck.MOD_ID+"_extra";
 	
 	private final List<EditData> activeEditData = new ArrayList<>();
+	/**
+	 * Lookups for the active edit data, which are checked by event handlers for just about any player interaction.
+	 * Connections are indexed by client only, since that can't change for a connection while its server player can.
+	 */
+	private final Map<UUID, EditData> editDataByEditor = new HashMap<>();
+	private final Map<PlayerIdentifier, List<EditData>> editDataByClient = new HashMap<>();
+	private final Map<Integer, EditData> editDataByDecoy = new HashMap<>();
 	
 	private final Map<UUID, EditData.PlayerRecovery> editPlayerRecovery = new HashMap<>();
 	private final List<EditData.ConnectionRecovery> editConnectionRecovery = new ArrayList<>();
@@ -45,7 +56,7 @@ public class MSExtraData extends WorldSavedData
 	@Override
 	public void load(CompoundNBT nbt)
 	{
-		activeEditData.clear();
+		clearEditData();
 		editPlayerRecovery.clear();
 		editConnectionRecovery.clear();
 		
@@ -135,16 +146,60 @@ public class MSExtraData extends WorldSavedData
 		return null;
 	}
 	
+	public EditData findEditData(PlayerEntity editor)
+	{
+		EditData data = editDataByEditor.get(editor.getUUID());
+		return data != null && data.getEditor() == editor ? data : null;
+	}
+	
+	public EditData findEditData(SburbConnection connection)
+	{
+		for(EditData data : editDataByClient.getOrDefault(connection.getClientIdentifier(), Collections.emptyList()))
+		{
+			if(data.getConnection().getServerIdentifier().equals(connection.getServerIdentifier()))
+				return data;
+		}
+		return null;
+	}
+	
+	public EditData findEditData(DecoyEntity decoy)
+	{
+		EditData data = editDataByDecoy.get(decoy.getId());
+		return data != null && data.getDecoy() == decoy ? data : null;
+	}
+	
 	public void addEditData(EditData data)
 	{
 		activeEditData.add(data);
+		editDataByEditor.put(data.getEditor().getUUID(), data);
+		editDataByClient.computeIfAbsent(data.getConnection().getClientIdentifier(), client -> new ArrayList<>(1)).add(data);
+		editDataByDecoy.put(data.getDecoy().getId(), data);
 		setDirty();
 	}
 	
 	public void removeEditData(EditData data)
 	{
 		if(activeEditData.remove(data))
+		{
+			editDataByEditor.remove(data.getEditor().getUUID(), data);
+			List<EditData> clientData = editDataByClient.get(data.getConnection().getClientIdentifier());
+			if(clientData != null)
+			{
+				clientData.remove(data);
+				if(clientData.isEmpty())
+					editDataByClient.remove(data.getConnection().getClientIdentifier());
+			}
+			editDataByDecoy.remove(data.getDecoy().getId(), data);
 			setDirty();
+		}
+	}
+	
+	private void clearEditData()
+	{
+		activeEditData.clear();
+		editDataByEditor.clear();
+		editDataByClient.clear();
+		editDataByDecoy.clear();
 	}
 	
 	public void forEach(Consumer<EditData> consumer)
@@ -157,7 +212,7 @@ public class MSExtraData extends WorldSavedData
 		if(!activeEditData.isEmpty())
 		{
 			forEach(consumer);
-			activeEditData.clear();
+			clearEditData();
 			setDirty();
 		}
 	}
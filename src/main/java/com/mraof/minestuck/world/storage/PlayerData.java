@@ -160,7 +160,7 @@ public final class PlayerData
 	
 	private void markDirty()
 	{
-		savedData.setDirty();
+		savedData.setDirty(identifier);
 	}
 	
 	public Echeladder getEcheladder()
@@ -363,8 +363,7 @@ public final class PlayerData
 		
 		if(getModus() != null)
 		{
-			Modus modus = getModus();
-			MSPacketHandler.sendToPlayer(ModusDataPacket.create(CaptchaDeckHandler.writeToNBT(modus)), player);
+			getModus().sendAll(player);
 		}
 		
 		echeladder.sendInitialPacket(player);
@@ -1,26 +1,33 @@
 package com.mraof.minestuck.world.storage;
 
 import com.mraof.minestuck.Minestuck;
+import com.mraof.minestuck.inventory.captchalogue.Modus;
 import com.mraof.minestuck.player.IdentifierHandler;
 import com.mraof.minestuck.player.PlayerIdentifier;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.World;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.world.storage.DimensionSavedDataManager;
+import net.minecraft.world.storage.FolderName;
 import net.minecraft.world.storage.WorldSavedData;
 import net.minecraftforge.common.util.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
 
 /**
  * Stores all instances of {@link PlayerData}.
+ * Each player's data is kept in a file of its own, which is loaded when the data is first needed and only written when that player's data has changed.
+ * Data of offline players that has been saved is dropped from memory when too many players have been loaded.
  * This class is for server-side use only.
  * @author kirderf1
  */
@@ -28,8 +35,11 @@ public class PlayerSavedData extends WorldSavedData
 {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static final String DATA_NAME = Minestuck.MOD_ID+"_player_data";
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_CACHED_OFFLINE_PLAYERS = 64;
 	
-	private final Map<PlayerIdentifier, PlayerData> dataMap = new HashMap<>();
+	private final Map<PlayerIdentifier, PlayerData> dataMap = new LinkedHashMap<>(16, 0.75F, true);
+	private final Set<PlayerIdentifier> dirtyPlayers = new HashSet<>();
 	public final MinecraftServer mcServer;
 	
 	private PlayerSavedData(MinecraftServer server)
@@ -65,18 +75,54 @@ public class PlayerSavedData extends WorldSavedData
 	@Override
 	public CompoundNBT save(CompoundNBT compound)
 	{
-		ListNBT list = new ListNBT();
-		for (PlayerData data : dataMap.values())
-			list.add(data.writeToNBT());
+		for(PlayerData data : dataMap.values())
+		{
+			Modus modus = data.getModus();
+			if(modus != null && modus.hasUnsavedChanges())
+				dirtyPlayers.add(data.identifier);
+		}
+		
+		//Data that could not be written to its own file is kept in this file, and in memory until it can be written
+		ListNBT unsavedList = new ListNBT();
+		Iterator<PlayerIdentifier> iterator = dirtyPlayers.iterator();
+		while(iterator.hasNext())
+		{
+			PlayerIdentifier player = iterator.next();
+			PlayerData data = dataMap.get(player);
+			if(data != null)
+			{
+				if(data.getModus() != null)
+					data.getModus().markSaved();
+				CompoundNBT nbt = data.writeToNBT();
+				if(!writePlayerFile(player, nbt))
+				{
+					unsavedList.add(nbt);
+					continue;
+				}
+			}
+			iterator.remove();
+		}
+		evictOfflinePlayers();
 		
-		compound.put("playerData", list);
+		compound.putInt("format", FORMAT_VERSION);
+		if(!unsavedList.isEmpty())
+			compound.put("playerData", unsavedList);
 		return compound;
 	}
 	
+	@Override
+	public boolean isDirty()
+	{
+		return super.isDirty() || !dirtyPlayers.isEmpty();
+	}
+	
 	@Override
 	public void load(CompoundNBT nbt)
 	{
+		//Player data used to be stored in this file. Load it all so that it gets moved to the player files at the next save
 		ListNBT list = nbt.getList("playerData", Constants.NBT.TAG_COMPOUND);
+		if(!list.isEmpty())
+			LOGGER.info("Moving minestuck player data for {} players to separate files", list.size());
 		for (int i = 0; i < list.size(); i++)
 		{
 			CompoundNBT dataCompound = list.getCompound(i);
@@ -84,13 +130,94 @@ public class PlayerSavedData extends WorldSavedData
 			{
 				PlayerData data = new PlayerData(this, dataCompound);
 				dataMap.put(data.identifier, data);
+				setDirty(data.identifier);
 			} catch(Exception e)
 			{
 				LOGGER.error("Got exception when loading minestuck player data instance:", e);
 			}
 		}
 	}
-
+	
+	/**
+	 * Marks the data of a player to be written to its file at the next save.
+	 */
+	public void setDirty(PlayerIdentifier player)
+	{
+		dirtyPlayers.add(player);
+		setDirty();
+	}
+	
+	private void evictOfflinePlayers()
+	{
+		int offlinePlayers = 0;
+		for(PlayerIdentifier player : dataMap.keySet())
+			if(player.getPlayer(mcServer) == null)
+				offlinePlayers++;
+		
+		//Iterates from the least recently used data
+		Iterator<Map.Entry<PlayerIdentifier, PlayerData>> iterator = dataMap.entrySet().iterator();
+		while(offlinePlayers > MAX_CACHED_OFFLINE_PLAYERS && iterator.hasNext())
+		{
+			PlayerIdentifier player = iterator.next().getKey();
+			if(player.getPlayer(mcServer) == null && !dirtyPlayers.contains(player))
+			{
+				iterator.remove();
+				offlinePlayers--;
+			}
+		}
+	}
+	
+	private Path getPlayerFile(PlayerIdentifier player)
+	{
+		return mcServer.getWorldPath(FolderName.ROOT).resolve("data").resolve(DATA_NAME).resolve(player.getCommandString() + ".dat");
+	}
+	
+	/**
+	 * @return true if the file was written
+	 */
+	private boolean writePlayerFile(PlayerIdentifier player, CompoundNBT nbt)
+	{
+		Path path = getPlayerFile(player);
+		try
+		{
+			Files.createDirectories(path.getParent());
+			Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			CompressedStreamTools.writeCompressed(nbt, tempPath.toFile());
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch(IOException e)
+		{
+			LOGGER.error("Could not save minestuck player data for {}. Will try again at the next save:", player.getUsername(), e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Reads the data of a player from its file.
+	 * If the file can't be read, it is moved aside so that it isn't replaced by the new data that is used instead.
+	 */
+	private PlayerData readPlayerFile(PlayerIdentifier player, Path path)
+	{
+		try
+		{
+			return new PlayerData(this, CompressedStreamTools.readCompressed(path.toFile()));
+		} catch(Exception e)
+		{
+			LOGGER.error("Got exception when loading minestuck player data for {}:", player.getUsername(), e);
+		}
+		
+		Path corruptPath = path.resolveSibling(path.getFileName() + ".corrupt");
+		try
+		{
+			Files.move(path, corruptPath, StandardCopyOption.REPLACE_EXISTING);
+		} catch(IOException e)
+		{
+			throw new IllegalStateException("Could neither read nor move aside the minestuck player data file " + path, e);
+		}
+		LOGGER.error("Moved the unreadable player data file to {}. {} will start with new minestuck player data.", corruptPath, player.getUsername());
+		return new PlayerData(this, player);
+	}
+	
 	public static PlayerData getData(ServerPlayerEntity player)
 	{
 		return get(player.server).getData(IdentifierHandler.encode(player));
@@ -105,16 +232,23 @@ public class PlayerSavedData extends WorldSavedData
 	{
 		return get(server).getData(player);
 	}
-
+	
 	public PlayerData getData(PlayerIdentifier player)
 	{
 		Objects.requireNonNull(player);
-		if (!dataMap.containsKey(player))
+		PlayerData data = dataMap.get(player);
+		if(data == null)
 		{
-			PlayerData data = new PlayerData(this, player);
+			Path path = getPlayerFile(player);
+			if(Files.exists(path))
+				data = readPlayerFile(player, path);
+			else
+			{
+				data = new PlayerData(this, player);
+				setDirty(player);
+			}
 			dataMap.put(player, data);
-			setDirty();
 		}
-		return dataMap.get(player);
+		return data;
 	}
 }
\ No newline at end of file